@@ -0,0 +1,35 @@
+package com.github.emilienkia.ajmx.benchmarks;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+/**
+ * AMBean with several attributes, used by bulk attribute benchmarks.
+ */
+@MBean(domain = "com.github.emilienkia.ajmx.benchmarks", type = "Attributes")
+public class AttributesBean {
+
+    @MBeanAttribute
+    long requests = 1000;
+
+    @MBeanAttribute
+    long errors = 10;
+
+    @MBeanAttribute
+    long bytesIn = 123456;
+
+    @MBeanAttribute
+    long bytesOut = 654321;
+
+    @MBeanAttribute
+    int connections = 42;
+
+    @MBeanAttribute
+    double load = 0.75;
+
+    @MBeanAttribute
+    String state = "RUNNING";
+
+    @MBeanAttribute
+    boolean enabled = true;
+}
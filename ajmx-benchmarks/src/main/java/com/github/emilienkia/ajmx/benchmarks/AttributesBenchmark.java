@@ -0,0 +1,71 @@
+package com.github.emilienkia.ajmx.benchmarks;
+
+import com.github.emilienkia.ajmx.impl.AjmxAdaptorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.management.AttributeList;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading attributes by batch through the MBean server, as scrapers do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributesBenchmark {
+
+    AjmxAdaptorImpl adaptor;
+
+    MBeanServer mbeanServer;
+
+    ObjectName name;
+
+    /** All attributes, in MBean info order. */
+    String[] all;
+
+    /** Some attributes and an unknown one. */
+    String[] some = {"requests", "errors", "unknown"};
+
+    @Setup
+    public void setup() throws JMException {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+        adaptor = new AjmxAdaptorImpl(mbeanServer);
+        name = adaptor.registerAMBean(new AttributesBean(), "bench");
+        all = Arrays.stream(mbeanServer.getMBeanInfo(name).getAttributes())
+                .map(MBeanAttributeInfo::getName).toArray(String[]::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        adaptor.unregisterAllAMBeans();
+    }
+
+    @Benchmark
+    public AttributeList getAllAttributes() throws JMException {
+        return mbeanServer.getAttributes(name, all);
+    }
+
+    @Benchmark
+    public AttributeList getSomeAttributes() throws JMException {
+        return mbeanServer.getAttributes(name, some);
+    }
+}
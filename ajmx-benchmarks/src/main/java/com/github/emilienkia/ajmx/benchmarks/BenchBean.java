@@ -0,0 +1,29 @@
+package com.github.emilienkia.ajmx.benchmarks;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+/**
+ * Simple AMBean used by benchmarks.
+ * Beans are identified by their value, which is also their default name.
+ */
+@MBean(domain = "com.github.emilienkia.ajmx.benchmarks", type = "Bench")
+public class BenchBean {
+
+    @MBeanAttribute
+    int value;
+
+    public BenchBean(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BenchBean && ((BenchBean) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+}
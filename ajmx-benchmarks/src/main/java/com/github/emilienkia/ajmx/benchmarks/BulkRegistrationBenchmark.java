@@ -0,0 +1,71 @@
+package com.github.emilienkia.ajmx.benchmarks;
+
+import com.github.emilienkia.ajmx.impl.AjmxAdaptorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.management.JMException;
+import javax.management.MBeanServerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bring up and tear down of a large number of AMBeans, one by one or by batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkRegistrationBenchmark {
+
+    @Param({"50000"})
+    int size;
+
+    AjmxAdaptorImpl adaptor;
+
+    List<Object> beans;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        adaptor = new AjmxAdaptorImpl(MBeanServerFactory.newMBeanServer());
+        beans = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            beans.add(new BenchBean(i));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        adaptor.unregisterAllAMBeans();
+    }
+
+    @Benchmark
+    public void registerOneByOne() throws JMException {
+        for (Object bean : beans) {
+            adaptor.registerAMBean(bean);
+        }
+        for (Object bean : beans) {
+            adaptor.unregisterAMBean(bean);
+        }
+    }
+
+    @Benchmark
+    public void registerByBatch() throws JMException {
+        adaptor.registerAMBeans(beans);
+        adaptor.unregisterAMBeans(beans);
+    }
+}
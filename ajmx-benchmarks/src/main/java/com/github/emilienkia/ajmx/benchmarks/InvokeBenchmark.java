@@ -0,0 +1,81 @@
+package com.github.emilienkia.ajmx.benchmarks;
+
+import com.github.emilienkia.ajmx.impl.AjmxAdaptorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of operation invocation through the MBean server, compared to a direct call.
+ * Invoking one of several overloads is expected to cost about the same as invoking a non-overloaded operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokeBenchmark {
+
+    static final String[] INT_INT = {"int", "int"};
+    static final String[] INT = {"int"};
+
+    AjmxAdaptorImpl adaptor;
+
+    MBeanServer mbeanServer;
+
+    OperationBean bean;
+
+    ObjectName name;
+
+    Object[] params = {21, 2};
+
+    Object[] param = {21};
+
+    @Setup
+    public void setup() throws JMException {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+        adaptor = new AjmxAdaptorImpl(mbeanServer);
+        bean = new OperationBean();
+        name = adaptor.registerAMBean(bean, "bench");
+    }
+
+    @TearDown
+    public void tearDown() {
+        adaptor.unregisterAllAMBeans();
+    }
+
+    @Benchmark
+    public int direct() {
+        return bean.add((Integer) params[0], (Integer) params[1]);
+    }
+
+    @Benchmark
+    public Object invoke() throws JMException {
+        return mbeanServer.invoke(name, "add", params, INT_INT);
+    }
+
+    @Benchmark
+    public Object invokeOverloaded() throws JMException {
+        return mbeanServer.invoke(name, "scale", param, INT);
+    }
+
+    @Benchmark
+    public Object invokeOverloadedTwoParams() throws JMException {
+        return mbeanServer.invoke(name, "scale", params, INT_INT);
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.emilienkia.ajmx.benchmarks;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanOperation;
+
+/**
+ * AMBean with a plain operation and an overloaded one, used by invocation benchmarks.
+ */
+@MBean(domain = "com.github.emilienkia.ajmx.benchmarks", type = "Operation")
+public class OperationBean {
+
+    @MBeanOperation
+    public int add(int a, int b) {
+        return a + b;
+    }
+
+    @MBeanOperation
+    public int scale(int value) {
+        return value * 2;
+    }
+
+    @MBeanOperation
+    public long scale(long value) {
+        return value * 2;
+    }
+
+    @MBeanOperation
+    public String scale(String value) {
+        return value + value;
+    }
+
+    @MBeanOperation
+    public int scale(int value, int factor) {
+        return value * factor;
+    }
+}
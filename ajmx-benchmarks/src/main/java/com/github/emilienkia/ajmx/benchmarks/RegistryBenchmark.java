@@ -0,0 +1,115 @@
+package com.github.emilienkia.ajmx.benchmarks;
+
+import com.github.emilienkia.ajmx.impl.AjmxAdaptorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.management.JMException;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of name-based registry operations depending on the number of registered AMBeans.
+ * Costs are expected to stay flat as the registry grows.
+ * Pattern queries target a small family of AMBeans, so their cost should depend on the family size only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryBenchmark {
+
+    static final int FAMILY_SIZE = 10;
+
+    @Param({"100", "1000", "10000", "50000"})
+    int size;
+
+    AjmxAdaptorImpl adaptor;
+
+    ObjectName[] names;
+
+    BenchBean[] beans;
+
+    BenchBean[] family;
+
+    ObjectName familyPattern;
+
+    int index = 0;
+
+    @Setup
+    public void setup() throws JMException {
+        adaptor = new AjmxAdaptorImpl(MBeanServerFactory.newMBeanServer());
+        names = new ObjectName[size];
+        beans = new BenchBean[size];
+        for (int i = 0; i < size; i++) {
+            beans[i] = new BenchBean(i);
+            names[i] = adaptor.registerAMBean(beans[i], "bean" + i);
+        }
+        family = new BenchBean[FAMILY_SIZE];
+        for (int i = 0; i < FAMILY_SIZE; i++) {
+            family[i] = new BenchBean(i);
+        }
+        familyPattern = new ObjectName("com.github.emilienkia.ajmx.benchmarks:type=Family,*");
+        registerFamily();
+    }
+
+    void registerFamily() throws JMException {
+        for (int i = 0; i < FAMILY_SIZE; i++) {
+            adaptor.registerAMBean(family[i], "Family", "member" + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        adaptor.unregisterAllAMBeans();
+    }
+
+    int next() {
+        index = (index + 1) % size;
+        return index;
+    }
+
+    @Benchmark
+    public Optional<Object> getByName() throws JMException {
+        return adaptor.get(names[next()]);
+    }
+
+    @Benchmark
+    public Object replaceByName() throws JMException {
+        int i = next();
+        return adaptor.replaceAMBean(names[i], beans[i]);
+    }
+
+    @Benchmark
+    public ObjectName unregisterAndRegisterByName() throws JMException {
+        int i = next();
+        adaptor.unregisterAMBean(names[i]);
+        return adaptor.registerAMBean(beans[i], "bean" + i);
+    }
+
+    @Benchmark
+    public Map<ObjectName, Object> findFamily() throws JMException {
+        return adaptor.find(familyPattern);
+    }
+
+    @Benchmark
+    public void unregisterAndRegisterFamily() throws JMException {
+        adaptor.unregisterAMBeans(familyPattern);
+        registerFamily();
+    }
+}
@@ -0,0 +1,443 @@
+package com.github.emilienkia.ajmx.processor;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.annotations.MBeanOperation;
+import com.github.emilienkia.ajmx.annotations.MBeanOperationParam;
+import com.github.emilienkia.ajmx.annotations.MBeanSnapshot;
+import com.github.emilienkia.ajmx.metrics.SnapshotMetric;
+import com.github.emilienkia.ajmx.spi.AMBeanAdapter;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.SimpleAnnotationValueVisitor8;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor generating an {@link AMBeanAdapter} for each class annotated with {@link MBean}.
+ * <p>
+ * Generated adapters declare annotated members with direct accessors, so the adaptor does not have to
+ * introspect the class by reflection at runtime.
+ * Annotations are passed as instances of value classes generated in the adapter, which follow the
+ * {@link java.lang.annotation.Annotation} contract for equality, hash code and string representation.
+ * Classes whose annotated members are private cannot be accessed by generated code: no adapter is generated
+ * for them and the adaptor falls back to reflection.
+ * Neither is generated for classes with snapshots, snapshot metrics or a snapshot lock, whose introspection
+ * requires reflection.
+ */
+@SupportedAnnotationTypes("com.github.emilienkia.ajmx.annotations.MBean")
+public class AMBeanProcessor extends AbstractProcessor {
+
+    /**
+     * Value class names of annotation types used by the adapter being generated, by annotation type name.
+     */
+    final Map<String, String> valueClasses = new LinkedHashMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(MBean.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (isSupported(type)) {
+                try {
+                    generate(type);
+                } catch (IOException ex) {
+                    error(type, "Cannot generate AMBean adapter: " + ex.getMessage());
+                }
+            }
+        }
+        return false;
+    }
+
+    boolean isSupported(TypeElement type) {
+        for (Element enclosing = type; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            TypeElement enclosingType = (TypeElement) enclosing;
+            if (enclosingType.getModifiers().contains(Modifier.PRIVATE)
+                    || enclosingType.getNestingKind() == NestingKind.LOCAL
+                    || enclosingType.getNestingKind() == NestingKind.ANONYMOUS) {
+                note(type, "AMBean class is not accessible, no adapter generated.");
+                return false;
+            }
+        }
+        if (!type.getAnnotation(MBean.class).snapshotLock().isEmpty()) {
+            note(type, "AMBean snapshot lock is introspected by reflection, no adapter generated.");
+            return false;
+        }
+        TypeMirror snapshotMetric = processingEnv.getTypeUtils().erasure(
+                processingEnv.getElementUtils().getTypeElement(SnapshotMetric.class.getCanonicalName()).asType());
+        boolean supported = true;
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getAnnotation(MBeanSnapshot.class) != null) {
+                note(member, "AMBean snapshot is introspected by reflection, no adapter generated.");
+                supported = false;
+            }
+            if (member.getAnnotation(MBeanAttribute.class) != null
+                    && processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(memberType(member)), snapshotMetric)) {
+                note(member, "AMBean snapshot metric is introspected by reflection, no adapter generated.");
+                supported = false;
+            }
+            boolean annotated = member.getAnnotation(MBeanAttribute.class) != null
+                    || member.getAnnotation(MBeanOperation.class) != null;
+            if (annotated && member.getModifiers().contains(Modifier.PRIVATE)) {
+                note(member, "Private AMBean member is not accessible, no adapter generated.");
+                supported = false;
+            }
+            if (member.getKind() == ElementKind.METHOD && member.getAnnotation(MBeanAttribute.class) != null
+                    && ((ExecutableElement) member).getParameters().size() > 1) {
+                error(member, "Method '" + member.getSimpleName() + "' is not a getter nor a setter.");
+                supported = false;
+            }
+        }
+        return supported;
+    }
+
+    /**
+     * Type of the value of an attribute member: field type, getter return type or setter parameter type.
+     */
+    TypeMirror memberType(Element member) {
+        if (member.getKind() == ElementKind.METHOD) {
+            ExecutableElement method = (ExecutableElement) member;
+            return method.getParameters().size() == 1 ? method.getParameters().get(0).asType() : method.getReturnType();
+        }
+        return member.asType();
+    }
+
+    void generate(TypeElement type) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        String adapterName = simpleName.replace('$', '_') + AMBeanAdapter.CLASS_SUFFIX;
+        String beanName = erasure(type.asType());
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                (packageName.isEmpty() ? "" : packageName + ".") + adapterName, type);
+        try (PrintWriter out = new PrintWriter(file.openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + adapterName + " implements " + AMBeanAdapter.class.getCanonicalName() + " {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<?> getBeanClass() {");
+            out.println("        return " + beanName + ".class;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void describe(Registrar registrar) {");
+
+            List<VariableElement> fields = ElementFilter.fieldsIn(type.getEnclosedElements());
+            List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+            // Same order than reflective introspection: fields, then accessor methods, then operations.
+            for (VariableElement field : fields) {
+                AnnotationMirror attr = mirror(field, MBeanAttribute.class);
+                if (attr != null) {
+                    generateField(out, beanName, field, attr);
+                }
+            }
+            for (ExecutableElement method : methods) {
+                AnnotationMirror attr = mirror(method, MBeanAttribute.class);
+                if (attr != null) {
+                    generateAccessor(out, beanName, method, attr);
+                }
+            }
+            for (ExecutableElement method : methods) {
+                AnnotationMirror op = mirror(method, MBeanOperation.class);
+                if (op != null) {
+                    generateOperation(out, beanName, method, op);
+                }
+            }
+
+            out.println("    }");
+
+            for (Map.Entry<String, String> valueClass : valueClasses.entrySet()) {
+                generateValueClass(out, processingEnv.getElementUtils().getTypeElement(valueClass.getKey()), valueClass.getValue());
+            }
+            out.println("}");
+        } finally {
+            valueClasses.clear();
+        }
+    }
+
+    void generateField(PrintWriter out, String beanName, VariableElement field, AnnotationMirror attr) {
+        MBeanAttribute annot = field.getAnnotation(MBeanAttribute.class);
+        String target = target(beanName, field) + "." + field.getSimpleName();
+        String reader = MBeanAttribute.Helpers.canRead(annot) ? "bean -> " + target : "null";
+        String writer = MBeanAttribute.Helpers.canWrite(annot) && !field.getModifiers().contains(Modifier.FINAL)
+                ? "(bean, value) -> " + target + " = (" + boxed(field.asType()) + ") value" : "null";
+        out.println("        registrar.field(\"" + field.getSimpleName() + "\", " + erasure(field.asType()) + ".class,");
+        out.println("                " + annotationLiteral(attr, "                ") + ",");
+        out.println("                " + reader + ",");
+        out.println("                " + writer + ");");
+    }
+
+    void generateAccessor(PrintWriter out, String beanName, ExecutableElement method, AnnotationMirror attr) {
+        String target = target(beanName, method) + "." + method.getSimpleName();
+        if (method.getParameters().isEmpty()) {
+            TypeMirror returnType = method.getReturnType();
+            String reader = returnType.getKind() == TypeKind.VOID
+                    ? "bean -> { " + target + "(); return null; }"
+                    : "bean -> " + target + "()";
+            out.println("        registrar.getter(\"" + method.getSimpleName() + "\", " + erasure(returnType) + ".class,");
+            out.println("                " + annotationLiteral(attr, "                ") + ",");
+            out.println("                " + reader + ");");
+        } else {
+            TypeMirror paramType = method.getParameters().get(0).asType();
+            out.println("        registrar.setter(\"" + method.getSimpleName() + "\", " + erasure(paramType) + ".class,");
+            out.println("                " + annotationLiteral(attr, "                ") + ",");
+            out.println("                (bean, value) -> " + target + "((" + boxed(paramType) + ") value));");
+        }
+    }
+
+    void generateOperation(PrintWriter out, String beanName, ExecutableElement method, AnnotationMirror op) {
+        List<? extends VariableElement> params = method.getParameters();
+        StringBuilder types = new StringBuilder();
+        StringBuilder annots = new StringBuilder();
+        StringBuilder args = new StringBuilder();
+        for (int p = 0; p < params.size(); p++) {
+            VariableElement param = params.get(p);
+            if (p > 0) {
+                types.append(", ");
+                annots.append(",\n                        ");
+                args.append(", ");
+            }
+            types.append(erasure(param.asType())).append(".class");
+            AnnotationMirror paramAnnot = mirror(param, MBeanOperationParam.class);
+            annots.append(paramAnnot != null ? annotationLiteral(paramAnnot, "                        ") : "null");
+            args.append("(").append(boxed(param.asType())).append(") p[").append(p).append("]");
+        }
+        String call = target(beanName, method) + "." + method.getSimpleName() + "(" + args + ")";
+
+        out.println("        registrar.operation(\"" + method.getSimpleName() + "\", " + erasure(method.getReturnType()) + ".class,");
+        out.println("                new Class<?>[]{" + types + "},");
+        out.println("                new " + MBeanOperationParam.class.getCanonicalName() + "[]{" + annots + "},");
+        out.println("                " + annotationLiteral(op, "                ") + ",");
+        out.println("                (bean, params) -> {");
+        out.println("                    Object[] p = " + AMBeanAdapter.class.getCanonicalName() + ".parameters(params, " + params.size() + ");");
+        if (method.getReturnType().getKind() == TypeKind.VOID) {
+            out.println("                    " + call + ";");
+            out.println("                    return null;");
+        } else {
+            out.println("                    return " + call + ";");
+        }
+        out.println("                });");
+    }
+
+    /**
+     * Generate an expression instantiating the annotation value class with all its values, defaults included.
+     */
+    String annotationLiteral(AnnotationMirror mirror, String indent) {
+        TypeElement annotType = (TypeElement) mirror.getAnnotationType().asElement();
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values
+                = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        StringBuilder sb = new StringBuilder();
+        sb.append("new ").append(valueClass(annotType)).append("(");
+        List<ExecutableElement> elements = ElementFilter.methodsIn(annotType.getEnclosedElements());
+        for (int i = 0; i < elements.size(); i++) {
+            ExecutableElement element = elements.get(i);
+            sb.append(i > 0 ? ",\n" + indent + "        " : "")
+                    .append(annotationValue(values.get(element), element.getReturnType(), indent + "        "));
+        }
+        return sb.append(")").toString();
+    }
+
+    /**
+     * Name of the value class generated in the adapter for an annotation type.
+     */
+    String valueClass(TypeElement annotType) {
+        String annotName = annotType.getQualifiedName().toString();
+        String className = valueClasses.get(annotName);
+        if (className == null) {
+            className = annotType.getSimpleName() + "Value";
+            if (valueClasses.containsValue(className)) {
+                className = annotName.replace('.', '_') + "Value";
+            }
+            valueClasses.put(annotName, className);
+        }
+        return className;
+    }
+
+    /**
+     * Generate a value class implementing an annotation type, as specified by {@link java.lang.annotation.Annotation}.
+     */
+    void generateValueClass(PrintWriter out, TypeElement annotType, String className) {
+        String annotName = annotType.getQualifiedName().toString();
+        List<ExecutableElement> elements = ElementFilter.methodsIn(annotType.getEnclosedElements());
+        StringBuilder params = new StringBuilder();
+        StringBuilder equals = new StringBuilder();
+        StringBuilder hashCode = new StringBuilder();
+        StringBuilder toString = new StringBuilder();
+        for (ExecutableElement element : elements) {
+            String name = element.getSimpleName().toString();
+            TypeMirror type = element.getReturnType();
+            boolean array = type.getKind() == TypeKind.ARRAY;
+            if (params.length() > 0) {
+                params.append(", ");
+                toString.append(" + \", ");
+            }
+            params.append(type).append(' ').append(name);
+            equals.append("\n                    && java.util.Objects.deepEquals(this.").append(name)
+                    .append(", other.").append(name).append("())");
+            String hash = array ? "java.util.Arrays.hashCode(this." + name + ")"
+                    : type.getKind().isPrimitive() ? boxed(type) + ".hashCode(this." + name + ")"
+                    : "this." + name + ".hashCode()";
+            hashCode.append("\n                    + (").append(127 * name.hashCode()).append(" ^ ").append(hash).append(")");
+            toString.append(name).append("=\" + ")
+                    .append(array ? "java.util.Arrays.toString(this." + name + ")" : "this." + name);
+        }
+
+        out.println();
+        out.println("    private static final class " + className + " implements " + annotName + " {");
+        for (ExecutableElement element : elements) {
+            out.println("        private final " + element.getReturnType() + " " + element.getSimpleName() + ";");
+        }
+        out.println();
+        out.println("        " + className + "(" + params + ") {");
+        for (ExecutableElement element : elements) {
+            out.println("            this." + element.getSimpleName() + " = " + element.getSimpleName() + ";");
+        }
+        out.println("        }");
+        out.println();
+        out.println("        @Override");
+        out.println("        public Class<? extends java.lang.annotation.Annotation> annotationType() {");
+        out.println("            return " + annotName + ".class;");
+        out.println("        }");
+        for (ExecutableElement element : elements) {
+            boolean array = element.getReturnType().getKind() == TypeKind.ARRAY;
+            out.println();
+            out.println("        @Override");
+            out.println("        public " + element.getReturnType() + " " + element.getSimpleName() + "() {");
+            out.println("            return this." + element.getSimpleName() + (array ? ".clone()" : "") + ";");
+            out.println("        }");
+        }
+        out.println();
+        out.println("        @Override");
+        out.println("        public boolean equals(Object obj) {");
+        out.println("            if (obj == this) {");
+        out.println("                return true;");
+        out.println("            }");
+        out.println("            if (!(obj instanceof " + annotName + ")) {");
+        out.println("                return false;");
+        out.println("            }");
+        out.println("            " + annotName + " other = (" + annotName + ") obj;");
+        out.println("            return true" + equals + ";");
+        out.println("        }");
+        out.println();
+        out.println("        @Override");
+        out.println("        public int hashCode() {");
+        out.println("            return 0" + hashCode + ";");
+        out.println("        }");
+        out.println();
+        out.println("        @Override");
+        out.println("        public String toString() {");
+        out.println("            return \"@" + annotName + "(" + (toString.length() > 0 ? toString + " + \"" : "") + ")\";");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    /**
+     * Generate the source expression of an annotation element value.
+     */
+    String annotationValue(AnnotationValue value, TypeMirror type, String indent) {
+        return value.accept(new SimpleAnnotationValueVisitor8<String, Void>() {
+            @Override
+            protected String defaultAction(Object o, Void unused) {
+                return processingEnv.getElementUtils().getConstantExpression(o);
+            }
+
+            @Override
+            public String visitType(TypeMirror t, Void unused) {
+                return erasure(t) + ".class";
+            }
+
+            @Override
+            public String visitEnumConstant(VariableElement c, Void unused) {
+                return ((TypeElement) c.getEnclosingElement()).getQualifiedName() + "." + c.getSimpleName();
+            }
+
+            @Override
+            public String visitAnnotation(AnnotationMirror a, Void unused) {
+                return annotationLiteral(a, indent);
+            }
+
+            @Override
+            public String visitArray(List<? extends AnnotationValue> vals, Void unused) {
+                TypeMirror componentType = ((ArrayType) type).getComponentType();
+                StringBuilder sb = new StringBuilder("new ").append(erasure(type)).append("{");
+                for (int i = 0; i < vals.size(); i++) {
+                    if (i > 0) {
+                        sb.append(", ");
+                    }
+                    sb.append(annotationValue(vals.get(i), componentType, indent));
+                }
+                return sb.append("}").toString();
+            }
+        }, null);
+    }
+
+    AnnotationMirror mirror(Element element, Class<?> annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation.getCanonicalName())) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    String target(String beanName, Element member) {
+        return member.getModifiers().contains(Modifier.STATIC) ? beanName : "((" + beanName + ") bean)";
+    }
+
+    String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return erasure(type);
+    }
+
+    void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+    void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.processor.entities.PrivateMemberBean;
+import com.github.emilienkia.ajmx.processor.entities.ProcessedBean;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+/**
+ * Check which classes are described by their generated adapter, from the adaptor package.
+ */
+public class AdaptedDescriptorTest implements WithAssertions {
+
+    @Test
+    public void adapterUsedTest() {
+        AjmxAdaptorImpl server = new AjmxAdaptorImpl();
+        assertThat(server.getDescriptor(ProcessedBean.class).adapted).isTrue();
+    }
+
+    @Test
+    public void reflectionUsedTest() {
+        AjmxAdaptorImpl server = new AjmxAdaptorImpl();
+        assertThat(server.getDescriptor(PrivateMemberBean.class).adapted).isFalse();
+    }
+}
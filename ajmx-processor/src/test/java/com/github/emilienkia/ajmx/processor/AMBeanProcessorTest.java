@@ -0,0 +1,194 @@
+package com.github.emilienkia.ajmx.processor;
+
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.annotations.MBeanOperation;
+import com.github.emilienkia.ajmx.annotations.MBeanOperationParam;
+import com.github.emilienkia.ajmx.impl.AjmxAdaptorImpl;
+import com.github.emilienkia.ajmx.processor.entities.HistogramMetricBean;
+import com.github.emilienkia.ajmx.processor.entities.LockedBean;
+import com.github.emilienkia.ajmx.processor.entities.PrivateMemberBean;
+import com.github.emilienkia.ajmx.processor.entities.ProcessedBean;
+import com.github.emilienkia.ajmx.processor.entities.SnapshotBean;
+import com.github.emilienkia.ajmx.spi.AMBeanAdapter;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AMBeanProcessorTest implements WithAssertions {
+
+    MBeanServer mbeanServer;
+    AjmxAdaptorImpl server;
+
+    @Before
+    public void setup() {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+        server = new AjmxAdaptorImpl(mbeanServer);
+    }
+
+    @After
+    public void after() {
+        server.unregisterAllAMBeans();
+        server = null;
+        mbeanServer = null;
+    }
+
+    @Test
+    public void adapterGeneratedTest() throws ClassNotFoundException {
+        Class<?> adapter = Class.forName(ProcessedBean.class.getName() + AMBeanAdapter.CLASS_SUFFIX);
+        assertThat(AMBeanAdapter.class).isAssignableFrom(adapter);
+    }
+
+    @Test
+    public void privateMemberNotGeneratedTest() {
+        Throwable thrown = catchThrowable(() -> Class.forName(PrivateMemberBean.class.getName() + AMBeanAdapter.CLASS_SUFFIX));
+        assertThat(thrown).isInstanceOf(ClassNotFoundException.class);
+    }
+
+    @Test
+    public void reflectiveFeaturesNotGeneratedTest() throws JMException {
+        for (Class<?> clazz : List.of(SnapshotBean.class, HistogramMetricBean.class, LockedBean.class)) {
+            Throwable thrown = catchThrowable(() -> Class.forName(clazz.getName() + AMBeanAdapter.CLASS_SUFFIX));
+            assertThat(thrown).isInstanceOf(ClassNotFoundException.class);
+        }
+
+        // Still supported through reflection
+        assertThat(mbeanServer.getAttribute(server.registerAMBean(new SnapshotBean(), "snapshot"), "value")).isEqualTo(7);
+        assertThat(mbeanServer.getAttribute(server.registerAMBean(new HistogramMetricBean(), "histogram"), "latencyCount")).isEqualTo(0L);
+        assertThat(mbeanServer.getAttribute(server.registerAMBean(new LockedBean(), "locked"), "value")).isEqualTo(5);
+    }
+
+    @Test
+    public void annotationValuesTest() throws ReflectiveOperationException {
+        AMBeanAdapter adapter = (AMBeanAdapter) Class.forName(ProcessedBean.class.getName() + AMBeanAdapter.CLASS_SUFFIX)
+                .getDeclaredConstructor().newInstance();
+        Map<String, Annotation> annotations = new HashMap<>();
+        adapter.describe(new AMBeanAdapter.Registrar() {
+            @Override
+            public void field(String fieldName, Class<?> type, MBeanAttribute attr, AMBeanAdapter.Reader reader, AMBeanAdapter.Writer writer) {
+                annotations.put(fieldName, attr);
+            }
+
+            @Override
+            public void getter(String methodName, Class<?> type, MBeanAttribute attr, AMBeanAdapter.Reader reader) {
+                annotations.put(methodName, attr);
+            }
+
+            @Override
+            public void setter(String methodName, Class<?> type, MBeanAttribute attr, AMBeanAdapter.Writer writer) {
+                annotations.put(methodName, attr);
+            }
+
+            @Override
+            public void operation(String methodName, Class<?> returnType, Class<?>[] parameterTypes, MBeanOperationParam[] params,
+                                  MBeanOperation op, AMBeanAdapter.Invoker invoker) {
+                annotations.put(methodName, op);
+                if (params.length > 0) {
+                    annotations.put(methodName + "#0", params[0]);
+                }
+            }
+        });
+
+        // Generated values must be interchangeable with annotations read by reflection
+        Map<String, Annotation> expected = Map.of(
+                "strAttr", ProcessedBean.class.getDeclaredField("strAttr").getAnnotation(MBeanAttribute.class),
+                "getLongValue", ProcessedBean.class.getDeclaredMethod("getLongValue").getAnnotation(MBeanAttribute.class),
+                "sayHello", ProcessedBean.class.getDeclaredMethod("sayHello", String.class).getAnnotation(MBeanOperation.class),
+                "sayHello#0", ProcessedBean.class.getDeclaredMethod("sayHello", String.class).getParameters()[0].getAnnotation(MBeanOperationParam.class));
+        expected.forEach((member, annotation) -> {
+            Annotation generated = annotations.get(member);
+            assertThat(generated).isEqualTo(annotation).hasSameHashCodeAs(annotation);
+            assertThat(annotation).isEqualTo(generated);
+            assertThat(generated.annotationType()).isEqualTo(annotation.annotationType());
+            assertThat(generated.toString()).startsWith("@" + annotation.annotationType().getName() + "(");
+        });
+        assertThat(annotations.get("intAttr")).isNotEqualTo(annotations.get("strAttr"));
+    }
+
+    @Test
+    public void mbeanInfoTest() throws JMException {
+        ObjectName name = server.registerAMBean(new ProcessedBean(), "bean");
+        MBeanInfo info = mbeanServer.getMBeanInfo(name);
+
+        assertThat(info.getDescription()).isEqualTo("Bean with a generated adapter");
+        assertThat(info.getAttributes())
+                .extracting(MBeanAttributeInfo::getName, MBeanAttributeInfo::getType, MBeanAttributeInfo::isReadable, MBeanAttributeInfo::isWritable)
+                .containsExactlyInAnyOrder(
+                        tuple("intAttr", "int", true, true),
+                        tuple("strAttr", String.class.getName(), true, false),
+                        tuple("listAttr", List.class.getName(), false, true),
+                        tuple("constant", "int", true, false),
+                        tuple("long", "long", true, true));
+        assertThat(info.getAttributes())
+                .filteredOn(attr -> attr.getName().equals("strAttr"))
+                .extracting(MBeanAttributeInfo::getDescription)
+                .containsExactly("This is a string \"attribute\"");
+        assertThat(info.getOperations())
+                .extracting(MBeanOperationInfo::getName, MBeanOperationInfo::getReturnType, MBeanOperationInfo::getImpact)
+                .containsExactlyInAnyOrder(
+                        tuple("voidVoidOperation", "void", MBeanOperationInfo.UNKNOWN),
+                        tuple("hello", String.class.getName(), MBeanOperationInfo.INFO),
+                        tuple("sum", "double", MBeanOperationInfo.UNKNOWN));
+        assertThat(info.getOperations())
+                .filteredOn(op -> op.getName().equals("hello"))
+                .flatExtracting(op -> List.of(op.getSignature()))
+                .extracting("name", "description")
+                .containsExactly(tuple("name", "Who to say hello."));
+    }
+
+    @Test
+    public void attributeTest() throws JMException {
+        ProcessedBean bean = new ProcessedBean();
+        ObjectName name = server.registerAMBean(bean, "bean");
+
+        assertThat(mbeanServer.getAttribute(name, "intAttr")).isEqualTo(25);
+        mbeanServer.setAttribute(name, new Attribute("intAttr", 42));
+        assertThat(mbeanServer.getAttribute(name, "intAttr")).isEqualTo(42);
+
+        assertThat(mbeanServer.getAttribute(name, "strAttr")).isEqualTo("Toto");
+
+        mbeanServer.setAttribute(name, new Attribute("listAttr", List.of("a", "b")));
+        assertThat(bean.getList()).containsExactly("a", "b");
+
+        mbeanServer.setAttribute(name, new Attribute("long", 12L));
+        assertThat(mbeanServer.getAttribute(name, "long")).isEqualTo(12L);
+
+        // Final fields are read-only, as with reflection
+        assertThat(mbeanServer.getAttribute(name, "constant")).isEqualTo(3);
+        assertThatThrownBy(() -> mbeanServer.setAttribute(name, new Attribute("constant", 4)))
+                .isInstanceOf(AttributeNotFoundException.class);
+    }
+
+    @Test
+    public void operationTest() throws JMException {
+        ProcessedBean bean = new ProcessedBean();
+        ObjectName name = server.registerAMBean(bean, "bean");
+
+        assertThat(mbeanServer.invoke(name, "hello", new Object[]{"World"}, new String[]{String.class.getName()}))
+                .isEqualTo("Hello World !");
+        assertThat(mbeanServer.invoke(name, "sum", new Object[]{1, 2.5}, new String[]{"int", "double"}))
+                .isEqualTo(3.5);
+        assertThat(mbeanServer.invoke(name, "voidVoidOperation", new Object[0], new String[0])).isNull();
+        assertThat(bean.getLongValue()).isZero();
+    }
+
+    @Test
+    public void reflectionFallbackTest() throws JMException {
+        ObjectName name = server.registerAMBean(new PrivateMemberBean(), "bean");
+        assertThat(mbeanServer.getAttribute(name, "value")).isEqualTo(12);
+    }
+}
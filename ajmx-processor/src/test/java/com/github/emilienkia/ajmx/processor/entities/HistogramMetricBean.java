@@ -0,0 +1,12 @@
+package com.github.emilienkia.ajmx.processor.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.metrics.Histogram;
+
+@MBean(domain = "this.is.test", type="Histogram")
+public class HistogramMetricBean {
+
+    @MBeanAttribute
+    final Histogram latency = new Histogram();
+}
@@ -0,0 +1,13 @@
+package com.github.emilienkia.ajmx.processor.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+@MBean(domain = "this.is.test", type="Locked", snapshotLock = "sequence")
+public class LockedBean {
+
+    volatile long sequence = 0;
+
+    @MBeanAttribute
+    volatile int value = 5;
+}
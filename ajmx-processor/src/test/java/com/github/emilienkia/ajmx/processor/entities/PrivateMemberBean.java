@@ -0,0 +1,12 @@
+package com.github.emilienkia.ajmx.processor.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+@MBean(domain = "this.is.test", type="Private")
+public class PrivateMemberBean {
+
+    @MBeanAttribute
+    private int value = 12;
+
+}
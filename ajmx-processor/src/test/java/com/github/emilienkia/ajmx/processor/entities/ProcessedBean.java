@@ -0,0 +1,61 @@
+package com.github.emilienkia.ajmx.processor.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.annotations.MBeanOperation;
+import com.github.emilienkia.ajmx.annotations.MBeanOperationParam;
+
+import java.util.List;
+
+import static com.github.emilienkia.ajmx.annotations.MBeanAttribute.AccessMode.READ_WRITE;
+import static com.github.emilienkia.ajmx.annotations.MBeanAttribute.AccessMode.WRITE_ONLY;
+
+@MBean(domain = "this.is.test", type="Processed", description = "Bean with a generated adapter")
+public class ProcessedBean {
+
+    @MBeanAttribute(description = "This is an integer attribute", accessMode = READ_WRITE)
+    int intAttr = 25;
+
+    @MBeanAttribute(description = "This is a string \"attribute\"")
+    final String strAttr = "Toto";
+
+    @MBeanAttribute(accessMode = WRITE_ONLY)
+    List<String> listAttr;
+
+    @MBeanAttribute(accessMode = READ_WRITE)
+    final int constant = 3;
+
+    long longValue = 42;
+
+    @MBeanAttribute(name = "long")
+    public long getLongValue() {
+        return longValue;
+    }
+
+    @MBeanAttribute(name = "long")
+    public void setLongValue(long longValue) {
+        this.longValue = longValue;
+    }
+
+    @MBeanOperation(description = "Method which takes no parameter and return nothing")
+    void voidVoidOperation() {
+        longValue = 0;
+    }
+
+    @MBeanOperation(name="hello", description = "Method taking a string and returning a string", impact = MBeanOperation.Impact.INFO)
+    String sayHello(
+            @MBeanOperationParam(name = "name", description = "Who to say hello.")
+                    String name
+    ) {
+        return "Hello " + name + " !";
+    }
+
+    @MBeanOperation
+    double sum(int i, double d) {
+        return i + d;
+    }
+
+    public List<String> getList() {
+        return listAttr;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.emilienkia.ajmx.processor.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanSnapshot;
+
+@MBean(domain = "this.is.test", type="Snapshot")
+public class SnapshotBean {
+
+    public static final class State {
+        final int value;
+
+        public State(int value) {
+            this.value = value;
+        }
+    }
+
+    @MBeanSnapshot
+    volatile State state = new State(7);
+}
@@ -1,13 +1,18 @@
 package com.github.emilienkia.ajmx;
 
+import com.github.emilienkia.ajmx.exceptions.AMBeanBatchException;
 import com.github.emilienkia.ajmx.exceptions.NotAnAMBean;
+import com.github.emilienkia.ajmx.metrics.QuantileSketch;
 
+import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
 import javax.management.JMException;
 import javax.management.ObjectName;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface of Annoted JMX server proxy.
@@ -42,6 +47,18 @@ public interface AjmxAdaptor {
      */
     Map<ObjectName, Object> find(ObjectName pattern) throws JMException;
 
+    /**
+     * Merge the quantile sketches held by an attribute of AMBeans matching a name pattern,
+     * to compute quantiles of the values recorded by all of them.
+     * AMBeans without such a sketch attribute are ignored.
+     * @param pattern Pattern to match.
+     * @param attribute Name of the attribute holding a {@link QuantileSketch}.
+     * @return Merged sketch snapshot, empty if no matching AMBean has such a sketch.
+     * @throws IllegalArgumentException If sketches do not have the same parameters.
+     * @throws AttributeNotFoundException If the attribute of a matching AMBean holds another metric.
+     */
+    Optional<QuantileSketch.Snapshot> mergeSketches(ObjectName pattern, String attribute) throws JMException;
+
     /**
      * Register an object as annotated MBean.
      * @param obj Object to register.
@@ -69,6 +86,43 @@ public interface AjmxAdaptor {
      */
     ObjectName registerAMBean(Object obj, String type, String name) throws JMException;
 
+    /**
+     * Asynchronously register an object as annotated MBean.
+     * Asynchronous operations on a same object are applied in the order they are requested.
+     * @param obj Object to register.
+     * @return Future completed with the JMX Object name onto which the AMBean is registered.
+     */
+    CompletableFuture<ObjectName> registerAMBeanAsync(Object obj);
+
+    /**
+     * Asynchronously register an object as annotated MBean to the specified name.
+     * Asynchronous operations on a same object are applied in the order they are requested.
+     * @param obj Object to register.
+     * @param name Name of the object.
+     * @return Future completed with the JMX Object name onto which the AMBean is registered.
+     */
+    CompletableFuture<ObjectName> registerAMBeanAsync(Object obj, String name);
+
+    /**
+     * Asynchronously register an object as annotated MBean to the specified type and name.
+     * Asynchronous operations on a same object are applied in the order they are requested.
+     * @param obj Object to register.
+     * @param type Type of the AMBean.
+     * @param name Name of the object.
+     * @return Future completed with the JMX Object name onto which the AMBean is registered.
+     */
+    CompletableFuture<ObjectName> registerAMBeanAsync(Object obj, String type, String name);
+
+    /**
+     * Register a batch of objects as annotated MBeans, with their default names.
+     * Objects are all processed, even if some of them fail to be registered.
+     * @param objs Objects to register.
+     * @return JMX Object names onto which the AMBeans are registered, in the order of the objects.
+     * @throws AMBeanBatchException Thrown after the whole batch is processed if some objects cannot be registered.
+     * Registered objects stay registered, their names are reported by {@link AMBeanBatchException#getProcessed()}.
+     */
+    List<ObjectName> registerAMBeans(Collection<?> objs) throws JMException;
+
     /**
      * Replace the object registered wi the specified name by another object.
      * New object shall strictly have the same type than the replaced object.
@@ -87,6 +141,15 @@ public interface AjmxAdaptor {
      */
     ObjectName replaceAMBean(Object old, Object other) throws JMException;
 
+    /**
+     * Asynchronously replace an object by another, keeping exactly the same name.
+     * Asynchronous operations on a same object are applied in the order they are requested.
+     * @param old Object to replace.
+     * @param other New object to set.
+     * @return Future completed with the object name of the old and new objects.
+     */
+    CompletableFuture<ObjectName> replaceAMBeanAsync(Object old, Object other);
+
     /**
      * Unregister an AMBean based on its object name.
      * @param objName Object name of the AMBean to unregister.
@@ -106,6 +169,24 @@ public interface AjmxAdaptor {
      */
     void unregisterAMBean(Object obj) throws JMException;
 
+    /**
+     * Asynchronously unregister an AMBean.
+     * Asynchronous operations on a same object are applied in the order they are requested.
+     * @param obj AMBean to unregister.
+     * @return Future completed with the object name of the unregistered AMBean, with null if it was not registered.
+     */
+    CompletableFuture<ObjectName> unregisterAMBeanAsync(Object obj);
+
+    /**
+     * Unregister a batch of AMBeans.
+     * Objects are all processed, even if some of them fail to be unregistered.
+     * Objects which are not registered are ignored.
+     * @param objs AMBeans to unregister.
+     * @throws AMBeanBatchException Thrown after the whole batch is processed if some objects cannot be unregistered.
+     * Names of the unregistered objects are reported by {@link AMBeanBatchException#getProcessed()}.
+     */
+    void unregisterAMBeans(Collection<?> objs) throws JMException;
+
     /**
      * Unregister all AMBeans.
      * @throws JMException
@@ -17,5 +17,15 @@ public @interface MBean {
 
     String description() default "";
 
+    /**
+     * Name of a field of the AMBean class used to read its attributes consistently when read by batch.
+     * <p>
+     * The field may hold a {@link java.util.concurrent.locks.StampedLock} taken in write mode by writers,
+     * or be a sequence number (volatile long or {@link java.util.concurrent.atomic.AtomicLong}) incremented
+     * by writers before and after each write. Attributes are read optimistically and read again if a write happened.
+     * Empty (default) to read attributes independently.
+     */
+    String snapshotLock() default "";
+
     // TODO extra properties
 }
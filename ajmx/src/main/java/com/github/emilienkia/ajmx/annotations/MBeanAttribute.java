@@ -22,6 +22,22 @@ public @interface MBeanAttribute {
 
     AccessMode accessMode() default AccessMode.DEFAULT;
 
+    /**
+     * Duration, in milliseconds, during which the value read from the attribute is cached for each AMBean.
+     * Concurrent reads of an expired value are coalesced into a single read of the attribute.
+     * Writing the attribute invalidates the cached value.
+     * 0 (default) disables the cache.
+     */
+    long cacheTtl() default 0;
+
+    /**
+     * Interval, in milliseconds, at which the attribute is read in background while the AMBean is registered.
+     * Reads of the attribute then return the last refreshed value immediately.
+     * A failed refresh keeps the last value. Takes precedence over {@link #cacheTtl()}.
+     * 0 (default) disables the refresh.
+     */
+    long refreshInterval() default 0;
+
     class Helpers {
 
         private Helpers() {
@@ -45,4 +45,23 @@ public @interface MBeanOperation {
     }
 
     Impact impact() default Impact.UNKNOWN;
+
+    /**
+     * Duration, in milliseconds, during which results of the operation are cached for each AMBean and argument values.
+     * Only informative operations (impact {@link Impact#INFO}) can be cached.
+     * 0 (default) disables the cache.
+     */
+    long cacheTtl() default 0;
+
+    /**
+     * Maximum number of cached results for each AMBean, least recently used results are evicted first.
+     */
+    int cacheSize() default 64;
+
+    /**
+     * Time invocations of the operation, exposed as read-only attributes of the AMBean named after the operation:
+     * invocation and error counts, and latency statistics in nanoseconds (see {@link com.github.emilienkia.ajmx.metrics.Histogram}).
+     * Overloads of a timed operation share the same statistics.
+     */
+    boolean timed() default false;
 }
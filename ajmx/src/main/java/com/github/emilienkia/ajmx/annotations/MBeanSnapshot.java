@@ -0,0 +1,28 @@
+package com.github.emilienkia.ajmx.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a field holding an immutable snapshot of the AMBean state, each component of the snapshot
+ * being exposed as a read-only attribute.
+ * <p>
+ * The field is either volatile or an {@link java.util.concurrent.atomic.AtomicReference}, so a whole new state is published
+ * with a single write. Attributes read by batch all come from the same snapshot.
+ * <p>
+ * Components are the members of the snapshot class annotated with {@link MBeanAttribute},
+ * or its record components, or its final fields.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD})
+public @interface MBeanSnapshot {
+
+    /**
+     * Prefix of the names of the attributes exposing snapshot components.
+     */
+    String prefix() default "";
+
+    String description() default "";
+}
@@ -0,0 +1,42 @@
+package com.github.emilienkia.ajmx.exceptions;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Aggregated report of the failures of a batch of AMBean registrations or unregistrations.
+ * Objects which did not fail have been processed anyway and are not rolled back,
+ * their names are reported by {@link #getProcessed()}.
+ */
+public class AMBeanBatchException extends JMException {
+
+    private final transient Map<Object, Exception> failures;
+
+    private final transient Map<Object, ObjectName> processed;
+
+    public AMBeanBatchException(String message, Map<Object, Exception> failures, Map<Object, ObjectName> processed) {
+        super(message);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.processed = Collections.unmodifiableMap(processed);
+        failures.values().forEach(this::addSuppressed);
+    }
+
+    /**
+     * Failures of the batch.
+     * @return Exception raised for each failed object.
+     */
+    public Map<Object, Exception> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Objects successfully processed by the batch, in batch order: registered AMBeans for a registration batch,
+     * unregistered AMBeans for an unregistration batch.
+     * @return Object name of each processed object.
+     */
+    public Map<Object, ObjectName> getProcessed() {
+        return processed;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.emilienkia.ajmx.exceptions;
+
+public class OperationDescriptorException extends AJMXException {
+
+    public OperationDescriptorException() {
+    }
+
+    public OperationDescriptorException(String message) {
+        super(message);
+    }
+
+    public OperationDescriptorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public OperationDescriptorException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.exceptions.AttributeDescriptorException;
+import com.github.emilienkia.ajmx.spi.AMBeanAdapter.Invoker;
+import com.github.emilienkia.ajmx.spi.AMBeanAdapter.Reader;
+import com.github.emilienkia.ajmx.spi.AMBeanAdapter.Writer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Factory of pre-compiled accessors to annotated fields and methods.
+ * Accessors are bound once at introspection time to method handles adapted to a generic shape,
+ * so reading, writing and invoking do not go through reflection anymore.
+ */
+final class Accessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType WRITER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private Accessors() {
+        // Prevent construct helper class
+    }
+
+    static Reader fieldReader(Field field) {
+        try {
+            final MethodHandle handle = adapt(LOOKUP.unreflectGetter(field), Modifier.isStatic(field.getModifiers()), READER_TYPE);
+            return obj -> (Object) handle.invokeExact(obj);
+        } catch (IllegalAccessException ex) {
+            throw new AttributeDescriptorException("Cannot access field '" + field.getName() + "'", ex);
+        }
+    }
+
+    static Writer fieldWriter(Field field) {
+        try {
+            final MethodHandle handle = adapt(LOOKUP.unreflectSetter(field), Modifier.isStatic(field.getModifiers()), WRITER_TYPE);
+            return (obj, value) -> {
+                handle.invokeExact(obj, value);
+            };
+        } catch (IllegalAccessException ex) {
+            throw new AttributeDescriptorException("Cannot access field '" + field.getName() + "'", ex);
+        }
+    }
+
+    static Reader methodReader(Method method) {
+        final MethodHandle handle = adapt(unreflect(method), Modifier.isStatic(method.getModifiers()), READER_TYPE);
+        return obj -> (Object) handle.invokeExact(obj);
+    }
+
+    static Writer methodWriter(Method method) {
+        final MethodHandle handle = adapt(unreflect(method), Modifier.isStatic(method.getModifiers()), WRITER_TYPE);
+        return (obj, value) -> {
+            handle.invokeExact(obj, value);
+        };
+    }
+
+    static Invoker methodInvoker(Method method) {
+        int count = method.getParameterCount();
+        final MethodHandle handle = adapt(unreflect(method), Modifier.isStatic(method.getModifiers()), MethodType.genericMethodType(count + 1))
+                .asSpreader(Object[].class, count);
+        return (obj, params) -> (Object) handle.invokeExact(obj, params);
+    }
+
+    /**
+     * Unwrap a throwable raised by an accessor to an exception suitable to be wrapped in JMX exceptions.
+     * Errors are propagated as is.
+     */
+    static Exception asException(Throwable ex) {
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        return ex instanceof Exception ? (Exception) ex : new UndeclaredThrowableException(ex);
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException ex) {
+            throw new AttributeDescriptorException("Cannot access method '" + method.getName() + "'", ex);
+        }
+    }
+
+    private static MethodHandle adapt(MethodHandle handle, boolean isStatic, MethodType type) {
+        if (isStatic) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(type);
+    }
+}
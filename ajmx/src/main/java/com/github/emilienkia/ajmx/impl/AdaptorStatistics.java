@@ -0,0 +1,93 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.metrics.Counter;
+import com.github.emilienkia.ajmx.metrics.Histogram;
+import com.github.emilienkia.ajmx.metrics.Meter;
+
+/**
+ * Statistics of an adaptor, registered as an AMBean when the adaptor monitors itself,
+ * see {@link AjmxAdaptorImpl#setSelfMonitoring(boolean)}.
+ * Latencies are in nanoseconds.
+ */
+@MBean(domain = AdaptorStatistics.DOMAIN, description = "Statistics of an AJMX adaptor")
+public final class AdaptorStatistics {
+
+    static final String DOMAIN = "com.github.emilienkia.ajmx";
+
+    private final AjmxAdaptorImpl adaptor;
+
+    @MBeanAttribute(description = "AMBean registrations")
+    final Meter registrations = new Meter();
+
+    @MBeanAttribute(description = "AMBean unregistrations")
+    final Meter unregistrations = new Meter();
+
+    @MBeanAttribute(description = "Number of registrations and unregistrations which failed")
+    final Counter registrationErrors = new Counter();
+
+    @MBeanAttribute(description = "Latency of registrations")
+    final Histogram registrationLatency = new Histogram();
+
+    @MBeanAttribute(description = "Latency of unregistrations")
+    final Histogram unregistrationLatency = new Histogram();
+
+    AdaptorStatistics(AjmxAdaptorImpl adaptor) {
+        this.adaptor = adaptor;
+    }
+
+    @MBeanAttribute(description = "Number of registered AMBeans, excluding self-monitoring ones")
+    public int getRegistrySize() {
+        int size = adaptor.ambeans.size();
+        if(adaptor.hasAMBean(this)) {
+            size--;
+        }
+        for (TypeStatistics stats : adaptor.typeStatistics.values()) {
+            if(adaptor.hasAMBean(stats)) {
+                size--;
+            }
+        }
+        return size;
+    }
+
+    @MBeanAttribute(description = "Number of AMBean classes described by the cache shared by all adaptors")
+    public long getDescriptorCacheSize() {
+        return DescriptorCache.size();
+    }
+
+    @MBeanAttribute(description = "Number of class lookups answered from the descriptor cache")
+    public long getDescriptorCacheHits() {
+        return DescriptorCache.hits();
+    }
+
+    @MBeanAttribute(description = "Number of class lookups which required to introspect the class")
+    public long getDescriptorCacheMisses() {
+        return DescriptorCache.misses();
+    }
+
+    @MBeanAttribute(description = "Ratio of class lookups answered from the descriptor cache")
+    public double getDescriptorCacheHitRate() {
+        long misses = DescriptorCache.misses();
+        long hits = DescriptorCache.hits();
+        return hits + misses > 0 ? (double) hits / (hits + misses) : 0.0;
+    }
+
+    void recordRegistration(long start, boolean failed) {
+        registrationLatency.record(System.nanoTime() - start);
+        if(failed) {
+            registrationErrors.increment();
+        } else {
+            registrations.mark();
+        }
+    }
+
+    void recordUnregistration(long start, boolean failed) {
+        unregistrationLatency.record(System.nanoTime() - start);
+        if(failed) {
+            registrationErrors.increment();
+        } else {
+            unregistrations.mark();
+        }
+    }
+}
@@ -5,8 +5,18 @@ import com.github.emilienkia.ajmx.annotations.MBean;
 import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
 import com.github.emilienkia.ajmx.annotations.MBeanOperation;
 import com.github.emilienkia.ajmx.annotations.MBeanOperationParam;
+import com.github.emilienkia.ajmx.annotations.MBeanSnapshot;
+import com.github.emilienkia.ajmx.exceptions.AMBeanBatchException;
 import com.github.emilienkia.ajmx.exceptions.AttributeDescriptorException;
 import com.github.emilienkia.ajmx.exceptions.NotAnAMBean;
+import com.github.emilienkia.ajmx.exceptions.OperationDescriptorException;
+import com.github.emilienkia.ajmx.metrics.DoubleMetric;
+import com.github.emilienkia.ajmx.metrics.Histogram;
+import com.github.emilienkia.ajmx.metrics.LongMetric;
+import com.github.emilienkia.ajmx.metrics.Meter;
+import com.github.emilienkia.ajmx.metrics.QuantileSketch;
+import com.github.emilienkia.ajmx.metrics.SnapshotMetric;
+import com.github.emilienkia.ajmx.spi.AMBeanAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,30 +42,106 @@ import javax.management.NotCompliantMBeanException;
 import javax.management.ObjectName;
 import javax.management.ReflectionException;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodType;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.AbstractMap;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 public class AjmxAdaptorImpl implements AjmxAdaptor {
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
-    MBeanServer mbeanServer = null;
+    volatile MBeanServer mbeanServer = null;
+
+    /**
+     * Registration mode, defining how registered objects are identified and retained.
+     */
+    public enum RegistrationMode {
+        /** Registered objects are identified with their {@link Object#equals(Object)} and strongly retained. */
+        EQUALITY,
+        /** Registered objects are identified by identity and strongly retained. */
+        IDENTITY,
+        /**
+         * Registered objects are identified by identity and weakly retained:
+         * they are automatically unregistered once they become unreachable.
+         */
+        WEAK;
+
+        Object lookupKey(Object obj) {
+            return this == EQUALITY ? obj : new ReferenceKey.IdentityKey(obj);
+        }
+
+        Object storeKey(Object obj, Instance instance, ReferenceQueue<Object> queue) {
+            switch (this) {
+                case IDENTITY:
+                    return new ReferenceKey.IdentityKey(obj);
+                case WEAK:
+                    return new ReferenceKey.WeakKey(obj, instance, queue);
+                default:
+                    return obj;
+            }
+        }
+    }
+
+    volatile RegistrationMode registrationMode = RegistrationMode.EQUALITY;
+
+    /** Registered instances, by registry key of their object (see {@link RegistrationMode}). */
+    final Map<Object, Instance> ambeans = new ConcurrentHashMap<>();
+
+    /** Keys of weakly registered objects which have been collected. */
+    final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    /** Interval between periodic unregistrations of collected objects, in milliseconds. */
+    static final long EXPUNGE_INTERVAL = 1000;
+
+    /** Periodic unregistration of collected objects, running while objects are weakly registered, guarded by {@link #collected}. */
+    private ScheduledFuture<?> expungeTask = null;
 
-    Map<Object, Instance> ambeans = new HashMap<>();
+    /** Index of registered AMBeans by object name, domain and key properties, kept in sync with {@link #ambeans}. */
+    final ObjectNameIndex<Instance> names = new ObjectNameIndex<>();
 
-    Map<Class<?>, ClassDescriptor> classDescs = new HashMap<>();
+    /** Executor of asynchronous operations, null for the shared default one. */
+    volatile Executor asyncExecutor = null;
+
+    /** Last pending asynchronous operation, by registry key of the object it applies to. */
+    final Map<Object, CompletableFuture<?>> asyncTails = new ConcurrentHashMap<>();
+
+    /** Delay before publishing AMBeans to the MBean server, in milliseconds, 0 to publish them immediately. */
+    volatile long publicationDelay = 0;
+
+    /** Publications to the MBean server waiting for their delay to elapse. */
+    final PublicationQueue publications = new PublicationQueue();
+
+    /** Number of failed background refreshes of attributes. */
+    final LongAdder refreshFailures = new LongAdder();
+
+    /** Statistics of the adaptor when monitoring itself, null otherwise. */
+    volatile AdaptorStatistics statistics = null;
+
+    /** Statistics of accesses to AMBeans by class, when monitoring itself. */
+    final Map<Class<?>, TypeStatistics> typeStatistics = new ConcurrentHashMap<>();
 
     public AjmxAdaptorImpl() {
     }
@@ -64,12 +150,205 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
         this.mbeanServer = mbeanServer;
     }
 
-    public MBeanServer assignMbeanServer(MBeanServer server) {
+    public Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        return executor!=null ? executor : SharedExecutors.async();
+    }
+
+    /**
+     * Set the executor running asynchronous registrations.
+     * By default, a shared executor running each operation in a virtual thread is used when the JVM supports them,
+     * a shared pool of daemon threads otherwise.
+     * @param asyncExecutor Executor to use, null to use the default one.
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public long getPublicationDelay() {
+        return publicationDelay;
+    }
+
+    /**
+     * Defer publication of AMBeans to the MBean server.
+     * <p>
+     * When set, AMBeans are immediately available from the adaptor but registrations and unregistrations
+     * to the MBean server are queued and applied by batch once the delay elapsed.
+     * An AMBean unregistered before being published is never published.
+     * Pending publications are applied when the delay is reset to 0.
+     * @param publicationDelay Delay in milliseconds, 0 to publish AMBeans immediately.
+     */
+    public void setPublicationDelay(long publicationDelay) {
+        if(publicationDelay<0) {
+            throw new IllegalArgumentException("Publication delay cannot be negative");
+        }
+        this.publicationDelay = publicationDelay;
+        if(publicationDelay==0) {
+            flushPublications();
+        }
+    }
+
+    /**
+     * Number of deferred publications cancelled by a later one, a registration and the following unregistration
+     * counting for two.
+     */
+    public long getCoalescedPublicationCount() {
+        return publications.coalesced.sum();
+    }
+
+    /**
+     * Number of deferred publications applied to the MBean server.
+     */
+    public long getAppliedPublicationCount() {
+        return publications.applied.sum();
+    }
+
+    /**
+     * Number of deferred publications which failed or were discarded because the MBean server changed.
+     */
+    public long getDroppedPublicationCount() {
+        return publications.dropped.sum();
+    }
+
+    /**
+     * Apply all pending deferred publications to the MBean server now.
+     */
+    public synchronized void flushPublications() {
+        Map<Instance, PublicationQueue.Operation> batch = publications.drain();
+        if(batch.isEmpty()) {
+            return;
+        }
+        MBeanServer server = mbeanServer;
+        if(server==null) {
+            publications.dropped.add(batch.size());
+            return;
+        }
+        int registered = 0, unregistered = 0;
+        for (Map.Entry<Instance, PublicationQueue.Operation> entry : batch.entrySet()) {
+            Instance instance = entry.getKey();
+            try {
+                if(entry.getValue()==PublicationQueue.Operation.PUBLISH) {
+                    server.registerMBean(instance, instance.getObjectName());
+                    registered++;
+                } else {
+                    server.unregisterMBean(instance.getObjectName());
+                    unregistered++;
+                }
+                publications.applied.increment();
+            } catch (JMException ex) {
+                logger.error("Error while publishing ambean {}", instance, ex);
+                publications.dropped.increment();
+            }
+        }
+        logger.info("Publish {} and unpublish {} MBeans", registered, unregistered);
+    }
+
+    private void schedulePublications() {
+        SharedExecutors.scheduler().schedule(() -> getAsyncExecutor().execute(this::flushPublications),
+                publicationDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Number of failed background refreshes of attributes, see {@link MBeanAttribute#refreshInterval()}.
+     */
+    public long getRefreshFailureCount() {
+        return refreshFailures.sum();
+    }
+
+    public boolean isSelfMonitoring() {
+        return statistics!=null;
+    }
+
+    /**
+     * Enable or disable monitoring of the adaptor by itself.
+     * <p>
+     * When enabled, the adaptor registers an AMBean with its own statistics (registry and descriptor cache sizes,
+     * registration rates and latencies), and an AMBean per class of registered AMBeans with the counts
+     * and latencies of their attribute reads, writes and operation invocations.
+     * @param selfMonitoring True to monitor the adaptor.
+     */
+    public synchronized void setSelfMonitoring(boolean selfMonitoring) throws JMException {
+        if(selfMonitoring==(statistics!=null)) {
+            return;
+        }
+        if(selfMonitoring) {
+            AdaptorStatistics stats = new AdaptorStatistics(this);
+            registerAMBean(stats, "AjmxAdaptor", statisticsId());
+            statistics = stats;
+            for (Instance instance : ambeans.values()) {
+                instance.statistics = typeStatistics(instance.descriptor);
+            }
+        } else {
+            AdaptorStatistics stats = statistics;
+            statistics = null;
+            for (Instance instance : ambeans.values()) {
+                instance.statistics = null;
+            }
+            unregisterAMBean(stats);
+            for (TypeStatistics typeStats : typeStatistics.values()) {
+                unregisterAMBean(typeStats);
+            }
+            typeStatistics.clear();
+        }
+    }
+
+    private String statisticsId() {
+        return Integer.toHexString(System.identityHashCode(this));
+    }
+
+    /**
+     * Statistics of accesses to the AMBeans of a class, registered on first use.
+     * @return Statistics, null for the classes of statistics themselves.
+     */
+    private TypeStatistics typeStatistics(ClassDescriptor descriptor) {
+        Class<?> clazz = descriptor.getClazz();
+        if(clazz==AdaptorStatistics.class || clazz==TypeStatistics.class) {
+            return null;
+        }
+        TypeStatistics stats = typeStatistics.get(clazz);
+        if(stats==null) {
+            TypeStatistics created = new TypeStatistics();
+            stats = typeStatistics.putIfAbsent(clazz, created);
+            if(stats==null) {
+                stats = created;
+                try {
+                    registerAMBean(created, "AjmxBeanType", clazz.getName() + "@" + statisticsId());
+                } catch (JMException ex) {
+                    logger.warn("Error while registering statistics of class {}", clazz.getName(), ex);
+                }
+            }
+        }
+        return stats;
+    }
+
+    public RegistrationMode getRegistrationMode() {
+        return registrationMode;
+    }
+
+    /**
+     * Change how registered objects are identified and retained.
+     * The mode can only be changed while no AMBean is registered.
+     * @param registrationMode New registration mode.
+     */
+    public synchronized void setRegistrationMode(RegistrationMode registrationMode) {
+        Objects.requireNonNull(registrationMode, "Registration mode cannot be null");
+        if(this.registrationMode != registrationMode) {
+            expungeStaleEntries();
+            if(!ambeans.isEmpty()) {
+                throw new IllegalStateException("Registration mode cannot be changed while AMBeans are registered");
+            }
+            this.registrationMode = registrationMode;
+        }
+    }
+
+    public synchronized MBeanServer assignMbeanServer(MBeanServer server) {
+        // Bring the current server up to date before moving AMBeans
+        flushPublications();
         MBeanServer old = mbeanServer;
-        if(mbeanServer!=null && mbeanServer!=server) {
+        if(old!=null && old!=server) {
             for(Instance bean : ambeans.values()) {
                 try {
-                    mbeanServer.unregisterMBean(bean.getObjectName());
+                    old.unregisterMBean(bean.getObjectName());
                 } catch (JMException ex) {
                     logger.error("Problem when unregistering object '{}'", bean);
                 }
@@ -79,7 +358,7 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
         if(server!=null) {
             for(Instance bean : ambeans.values()) {
                 try {
-                    mbeanServer.registerMBean(bean, bean.getObjectName());
+                    server.registerMBean(bean, bean.getObjectName());
                 } catch (JMException ex) {
                     logger.error("Problem when registering object '{}'", bean);
                 }
@@ -92,26 +371,23 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
         return mbeanServer != null;
     }
 
-    ClassDescriptor getDescriptor(Class<?> clazz) {
-        if(!classDescs.containsKey(clazz)) {
-            return introspect(clazz);
-        } else {
-            return classDescs.get(clazz);
-        }
+    /**
+     * Number of AMBean class lookups answered from the descriptor cache shared by all adaptors,
+     * including lookups of classes which are not AMBeans.
+     */
+    public long getDescriptorCacheHitCount() {
+        return DescriptorCache.hits();
     }
 
-    ClassDescriptor introspect(Class<?> clazz) {
-        if(clazz==null) {
-            return null;
-        }
-        MBean annot = clazz.getAnnotation(MBean.class);
-        if(annot==null) {
-            return null;
-        }
+    /**
+     * Number of AMBean class lookups which required to introspect the class.
+     */
+    public long getDescriptorCacheMissCount() {
+        return DescriptorCache.misses();
+    }
 
-        ClassDescriptor desc = new ClassDescriptor(clazz, annot);
-        classDescs.put(clazz, desc);
-        return desc;
+    ClassDescriptor getDescriptor(Class<?> clazz) {
+        return DescriptorCache.get(clazz);
     }
 
     @Override
@@ -121,7 +397,8 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
 
     @Override
     public boolean hasAMBean(Object obj) {
-        return ambeans.get(obj)!=null;
+        expungeStaleEntries();
+        return ambeans.get(registrationMode.lookupKey(obj))!=null;
     }
 
     @Override
@@ -136,14 +413,17 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
 
     @Override
     public ObjectName registerAMBean(Object obj, String type, String name) throws JMException {
+        expungeStaleEntries();
         Instance instance = createInstance(obj, type, name);
         try {
             ObjectName objName = instance.getObjectName();
-            logger.info("Register MBean : {}", objName);
-            if(mbeanServer!=null) {
-                mbeanServer.registerMBean(instance, objName);
+            if(publicationDelay>0) {
+                // Reported when published
+                logger.debug("Register MBean : {}", objName);
+            } else {
+                logger.info("Register MBean : {}", objName);
             }
-            ambeans.put(obj, instance);
+            register(instance, obj, objName);
             return objName;
         } catch (MalformedObjectNameException | MBeanRegistrationException | InstanceAlreadyExistsException | NotCompliantMBeanException ex) {
             logger.error("Error while creating new ABean for object {} of type {}", obj, obj.getClass().getName(), ex);
@@ -151,6 +431,118 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
         }
     }
 
+    @Override
+    public List<ObjectName> registerAMBeans(Collection<?> objs) throws JMException {
+        expungeStaleEntries();
+        introspect(objs);
+        logger.info("Register {} MBeans", objs.size());
+        List<ObjectName> objNames = new ArrayList<>(objs.size());
+        Map<Object, Exception> failures = new LinkedHashMap<>();
+        Map<Object, ObjectName> registered = new LinkedHashMap<>();
+        for (Object obj : objs) {
+            try {
+                Instance instance = createInstance(obj, null, null);
+                ObjectName objName = instance.getObjectName();
+                logger.debug("Register MBean : {}", objName);
+                register(instance, obj, objName);
+                objNames.add(objName);
+                registered.put(obj, objName);
+            } catch (JMException | RuntimeException ex) {
+                failures.put(obj, ex);
+            }
+        }
+        if(!failures.isEmpty()) {
+            logger.error("Error while registering {} of {} MBeans", failures.size(), objs.size());
+            throw new AMBeanBatchException(failures.size() + " of " + objs.size() + " objects cannot be registered", failures, registered);
+        }
+        return objNames;
+    }
+
+    /**
+     * Introspect the distinct classes of the objects in parallel, so they are ready in descriptor cache.
+     */
+    private void introspect(Collection<?> objs) {
+        Set<Class<?>> classes = objs.stream()
+                .filter(Objects::nonNull)
+                .map(Object::getClass)
+                .collect(Collectors.toSet());
+        if(classes.size()>1) {
+            classes.parallelStream().forEach(clazz -> {
+                try {
+                    DescriptorCache.get(clazz);
+                } catch (RuntimeException ex) {
+                    // Reported when registering objects of this class
+                }
+            });
+        }
+    }
+
+    /**
+     * Register an instance into the MBean server and the registry.
+     */
+    private void register(Instance instance, Object obj, ObjectName objName) throws JMException {
+        AdaptorStatistics stats = statistics;
+        if(stats==null) {
+            registerInstance(instance, obj, objName);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            registerInstance(instance, obj, objName);
+            failed = false;
+        } finally {
+            stats.recordRegistration(start, failed);
+        }
+        instance.statistics = typeStatistics(instance.descriptor);
+    }
+
+    private void registerInstance(Instance instance, Object obj, ObjectName objName) throws JMException {
+        // Instance is locked until fully registered, so it cannot be unregistered or replaced meanwhile.
+        synchronized (instance) {
+            if(names.putIfAbsent(objName, instance)!=null) {
+                throw new InstanceAlreadyExistsException("AMBean '" + objName + "' already registered.");
+            }
+            MBeanServer server = mbeanServer;
+            if(server!=null) {
+                if(publicationDelay>0) {
+                    if(publications.publish(instance)) {
+                        schedulePublications();
+                    }
+                } else {
+                    try {
+                        server.registerMBean(instance, objName);
+                    } catch (JMException ex) {
+                        names.remove(objName, instance);
+                        throw ex;
+                    }
+                }
+            }
+            RegistrationMode mode = registrationMode;
+            instance.key = mode.storeKey(obj, instance, collected);
+            if(mode==RegistrationMode.WEAK) {
+                // Only the weak key references the object
+                instance.object = null;
+            }
+            // Remove before putting: maps keep the existing key when putting an equal one.
+            Instance previous = ambeans.remove(instance.key);
+            ambeans.put(instance.key, instance);
+            if(mode==RegistrationMode.WEAK) {
+                startExpunging();
+            }
+            instance.startRefresh();
+            instance.startMeters();
+            if(previous!=null) {
+                // Object registered again with another name, drop the previous registration.
+                try {
+                    unregister(previous);
+                } catch (JMException ex) {
+                    logger.error("Error while unregistering previous ambean {}", previous, ex);
+                }
+            }
+        }
+    }
+
     Instance createInstance(Object obj, String type, String name) {
         ClassDescriptor desc = getDescriptor(obj.getClass());
         if(desc==null) {
@@ -162,69 +554,102 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
 
     @Override
     public Optional<Object> get(ObjectName name) throws JMException {
-        return ambeans.entrySet().stream()
-                .filter(entry -> {
-                    try {
-                        return entry.getValue().getObjectName().compareTo(name) == 0;
-                    } catch (Throwable ex) {
-                        return false;
-                    }
-                })
-                .findAny()
-                .map(Map.Entry::getKey);
+        expungeStaleEntries();
+        return Optional.ofNullable(names.get(name)).map(Instance::getObject);
     }
 
     @Override
     public Map<ObjectName, Object> find(ObjectName pattern) throws JMException {
-        return ambeans.entrySet().stream()
-                .map(entry -> {
-                    try {
-                        return new AbstractMap.SimpleEntry<ObjectName, Object>(entry.getValue().getObjectName(), entry.getKey());
-                    } catch (Throwable ex) {
-                        return new AbstractMap.SimpleEntry<ObjectName, Object>(null, entry.getKey());
-                    }
+        expungeStaleEntries();
+        Map<ObjectName, Object> result = new HashMap<>();
+        for (Map.Entry<ObjectName, Instance> entry : names.find(pattern).entrySet()) {
+            Object obj = entry.getValue().getObject();
+            if(obj!=null) {
+                result.put(entry.getKey(), obj);
+            }
+        }
+        return result;
+    }
 
-                })
-                .filter(entry -> entry.getKey()!=null && pattern.apply(entry.getKey()))
-                .collect(Collectors.toMap( Map.Entry::getKey, Map.Entry::getValue ));
+    @Override
+    public Optional<QuantileSketch.Snapshot> mergeSketches(ObjectName pattern, String attribute) throws JMException {
+        expungeStaleEntries();
+        QuantileSketch.Snapshot merged = null;
+        for (Instance instance : names.find(pattern).values()) {
+            Integer slot = instance.descriptor.sketchSlots.get(attribute);
+            if(slot==null && instance.descriptor.metricSlots.containsKey(attribute)) {
+                throw new AttributeNotFoundException("Attribute " + attribute + " of " + instance.getObjectName() + " does not hold a QuantileSketch");
+            }
+            Object obj = instance.getObject();
+            if(slot==null || obj==null) {
+                continue;
+            }
+            Object snapshot = instance.descriptor.readSnapshot(slot, obj);
+            if(snapshot!=null) {
+                merged = merged!=null ? merged.merge((QuantileSketch.Snapshot) snapshot) : (QuantileSketch.Snapshot) snapshot;
+            }
+        }
+        return Optional.ofNullable(merged);
     }
 
     @Override
     public Object replaceAMBean(ObjectName name, Object other) throws JMException {
-        Map.Entry<Object,Instance> entry =  ambeans.entrySet().stream()
-                .filter(e -> {
-                    try {
-                        return e.getValue().getObjectName().compareTo(name) == 0;
-                    } catch (Throwable ex) {
-                        return false;
-                    }
-                })
-                .findAny()
-                .orElseThrow(() -> new JMException("Object not found"));
-        Object old = entry.getKey();
-        if(!old.getClass().equals(other.getClass())) {
-            throw new JMException("Objects are not of the same class");
+        expungeStaleEntries();
+        Instance instance = names.get(name);
+        if(instance!=null) {
+            synchronized (instance) {
+                Object old = instance.getObject();
+                if(old!=null && replace(instance, old, other)) {
+                    return old;
+                }
+            }
         }
-        Instance instance = entry.getValue();
-        instance.object = other;
-        ambeans.put(other, instance);
-        ambeans.remove(old);
-        return old;
+        throw new JMException("Object not found");
     }
 
     @Override
     public ObjectName replaceAMBean(Object old, Object other) throws JMException {
-        Instance instance = ambeans.get(old);
-        if(instance==null) {
-            throw new JMException("Object not found");
+        expungeStaleEntries();
+        Instance instance = ambeans.get(registrationMode.lookupKey(old));
+        if(instance!=null) {
+            synchronized (instance) {
+                if(replace(instance, old, other)) {
+                    return instance.getObjectName();
+                }
+            }
+        }
+        throw new JMException("Object not found");
+    }
+
+    /**
+     * Substitute the object of a registered instance.
+     * Must be called with the instance locked.
+     * @return False if the instance is not registered with the old object anymore.
+     */
+    private boolean replace(Instance instance, Object old, Object other) throws JMException {
+        RegistrationMode mode = registrationMode;
+        if(ambeans.get(mode.lookupKey(old))!=instance) {
+            return false;
         }
         if(!old.getClass().equals(other.getClass())) {
             throw new JMException("Objects are not of the same class");
         }
-        instance.object = other;
-        ambeans.put(other, instance);
-        ambeans.remove(old);
-        return instance.getObjectName();
+        if(old!=other) {
+            Object oldKey = instance.key;
+            Object newKey = mode.storeKey(other, instance, collected);
+            // Remove before putting: maps keep the existing key when putting an equal one.
+            ambeans.remove(oldKey, instance);
+            ambeans.put(newKey, instance);
+            if(oldKey instanceof ReferenceKey.WeakKey) {
+                ((ReferenceKey.WeakKey) oldKey).instance = null;
+            }
+            instance.key = newKey;
+            instance.object = mode==RegistrationMode.WEAK ? null : other;
+            instance.invalidateValues();
+            instance.stopMeters();
+            instance.startMeters();
+        }
+        return true;
     }
 
     @Override
@@ -232,34 +657,23 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
         if(objName==null) {
             throw new IllegalArgumentException("ObjectName of bean to unregister cannot be null");
         }
-        for(Iterator<Map.Entry<Object, Instance>> iterator = ambeans.entrySet().iterator(); iterator.hasNext();) {
-            Map.Entry<Object, Instance> entry = iterator.next();
-            if(entry.getValue().getObjectName().equals(objName)) {
-                logger.info("Unregister mbean : {}", objName);
-                mbeanServer.unregisterMBean(objName);
-                iterator.remove();
-                return;
-            }
+        expungeStaleEntries();
+        Instance instance = names.get(objName);
+        if(instance==null || !unregister(instance)) {
+            throw new InstanceNotFoundException("AMBean '" + objName + "' not found.");
         }
-        throw new InstanceNotFoundException("AMBean '" + objName + "' not found.");
     }
 
     @Override
     public void unregisterAMBeans(ObjectName objPattern) throws JMException {
         if(objPattern.isPattern()) {
-            ambeans.entrySet().removeIf(entry -> {
+            for (Instance instance : names.find(objPattern).values()) {
                 try {
-                    ObjectName name = entry.getValue().getObjectName();
-                    if(objPattern.apply(name)) {
-                        logger.info("Unregister mbean : {}", name);
-                        mbeanServer.unregisterMBean(name);
-                        return true;
-                    }
+                    unregister(instance);
                 } catch(Exception ex) {
                     // Ignore it
                 }
-                return false;
-            });
+            }
         } else {
             throw new IllegalArgumentException("Specified object pattern must be a valid MBean name pattern");
         }
@@ -267,28 +681,287 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
 
     @Override
     public void unregisterAMBean(Object obj) throws JMException {
-        Instance instance = ambeans.get(obj);
-        if (instance!=null) {
-            logger.info("Unregister mbean : {}", instance);
-            if(mbeanServer!=null) {
-                mbeanServer.unregisterMBean(instance.getObjectName());
+        unregisterObject(obj);
+    }
+
+    /**
+     * Unregister an AMBean.
+     * @return Name of the unregistered AMBean, null if it was not registered.
+     */
+    ObjectName unregisterObject(Object obj) throws JMException {
+        expungeStaleEntries();
+        Instance instance = ambeans.get(registrationMode.lookupKey(obj));
+        if (instance!=null && unregister(instance)) {
+            return instance.getObjectName();
+        }
+        return null;
+    }
+
+    @Override
+    public CompletableFuture<ObjectName> registerAMBeanAsync(Object obj) {
+        return registerAMBeanAsync(obj, null, null);
+    }
+
+    @Override
+    public CompletableFuture<ObjectName> registerAMBeanAsync(Object obj, String name) {
+        return registerAMBeanAsync(obj, null, name);
+    }
+
+    @Override
+    public CompletableFuture<ObjectName> registerAMBeanAsync(Object obj, String type, String name) {
+        return submit(() -> registerAMBean(obj, type, name), obj);
+    }
+
+    @Override
+    public CompletableFuture<ObjectName> replaceAMBeanAsync(Object old, Object other) {
+        return submit(() -> replaceAMBean(old, other), old, other);
+    }
+
+    @Override
+    public CompletableFuture<ObjectName> unregisterAMBeanAsync(Object obj) {
+        return submit(() -> unregisterObject(obj), obj);
+    }
+
+    /**
+     * Run an operation asynchronously, after all pending asynchronous operations on the specified objects.
+     * A failed operation does not prevent the following ones from running.
+     * @param task Operation to run.
+     * @param objs Objects the operation applies to.
+     * @return Future completed with the operation result.
+     */
+    <T> CompletableFuture<T> submit(Callable<T> task, Object... objs) {
+        RegistrationMode mode = registrationMode;
+        Object[] keys = Arrays.stream(objs).map(mode::lookupKey).toArray();
+        CompletableFuture<Void> gate = new CompletableFuture<>();
+        CompletableFuture<T> next = gate.thenApplyAsync(ignored -> {
+            try {
+                return task.call();
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, getAsyncExecutor());
+
+        List<CompletableFuture<?>> previous = new ArrayList<>(keys.length);
+        if(keys.length==1) {
+            asyncTails.compute(keys[0], (key, tail) -> chain(previous, tail, next));
+        } else {
+            // Operations on several objects are chained atomically, so they cannot wait for each other.
+            synchronized (asyncTails) {
+                for (Object key : keys) {
+                    asyncTails.compute(key, (k, tail) -> chain(previous, tail, next));
+                }
             }
-            ambeans.remove(obj);
+        }
+        CompletableFuture.allOf(previous.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, ex) -> gate.complete(null));
+        next.whenComplete((result, ex) -> {
+            for (Object key : keys) {
+                asyncTails.remove(key, next);
+            }
+        });
+        return next;
+    }
+
+    private static CompletableFuture<?> chain(List<CompletableFuture<?>> previous, CompletableFuture<?> tail, CompletableFuture<?> next) {
+        if(tail!=null) {
+            // Ignore failures of previous operations
+            previous.add(tail.handle((result, ex) -> null));
+        }
+        return next;
+    }
+
+    @Override
+    public void unregisterAMBeans(Collection<?> objs) throws JMException {
+        expungeStaleEntries();
+        logger.info("Unregister {} MBeans", objs.size());
+        RegistrationMode mode = registrationMode;
+        Map<Object, Exception> failures = new LinkedHashMap<>();
+        Map<Object, ObjectName> unregistered = new LinkedHashMap<>();
+        for (Object obj : objs) {
+            try {
+                Instance instance = ambeans.get(mode.lookupKey(obj));
+                if (instance!=null && unregister(instance, false)) {
+                    unregistered.put(obj, instance.getObjectName());
+                }
+            } catch (JMException | RuntimeException ex) {
+                failures.put(obj, ex);
+            }
+        }
+        if(!failures.isEmpty()) {
+            logger.error("Error while unregistering {} of {} MBeans", failures.size(), objs.size());
+            throw new AMBeanBatchException(failures.size() + " of " + objs.size() + " objects cannot be unregistered", failures, unregistered);
         }
     }
 
     @Override
     public void unregisterAllAMBeans() {
-        if(mbeanServer!=null) {
-            for (Instance instance : ambeans.values()) {
+        expungeStaleEntries();
+        for (Instance instance : ambeans.values()) {
+            try {
+                unregister(instance);
+            } catch (Exception e) {
+                logger.error("Error while unregistering an ambean {}", instance, e);
+                synchronized (instance) {
+                    forget(instance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Unregister an instance from the MBean server and the registry.
+     * @return False if the instance was not registered anymore.
+     */
+    private boolean unregister(Instance instance) throws JMException {
+        return unregister(instance, true);
+    }
+
+    /**
+     * Unregister an instance from the MBean server and the registry.
+     * @param verbose False to log at debug level, when unregistration is reported by batch.
+     * @return False if the instance was not registered anymore.
+     */
+    private boolean unregister(Instance instance, boolean verbose) throws JMException {
+        AdaptorStatistics stats = statistics;
+        if(stats==null) {
+            return unregisterInstance(instance, verbose);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            boolean unregistered = unregisterInstance(instance, verbose);
+            failed = false;
+            return unregistered;
+        } finally {
+            stats.recordUnregistration(start, failed);
+        }
+    }
+
+    private boolean unregisterInstance(Instance instance, boolean verbose) throws JMException {
+        synchronized (instance) {
+            ObjectName name = instance.getObjectName();
+            if(names.get(name)!=instance) {
+                return false;
+            }
+            boolean deferred = publicationDelay>0;
+            if(verbose && !deferred) {
+                logger.info("Unregister mbean : {}", name);
+            } else {
+                logger.debug("Unregister mbean : {}", name);
+            }
+            MBeanServer server = mbeanServer;
+            if(server!=null) {
+                if(deferred) {
+                    if(publications.unpublish(instance)) {
+                        schedulePublications();
+                    }
+                } else {
+                    server.unregisterMBean(name);
+                }
+            }
+            forget(instance);
+            return true;
+        }
+    }
+
+    /**
+     * Remove an instance from the registry.
+     * Must be called with the instance locked.
+     */
+    private void forget(Instance instance) {
+        instance.stopRefresh();
+        instance.stopMeters();
+        try {
+            names.remove(instance.getObjectName(), instance);
+        } catch (MalformedObjectNameException ex) {
+            // Never registered by name
+        }
+        if(instance.key!=null) {
+            ambeans.remove(instance.key, instance);
+        }
+        if(instance.key instanceof ReferenceKey.WeakKey) {
+            ((ReferenceKey.WeakKey) instance.key).instance = null;
+        }
+    }
+
+    /**
+     * Unregister instances whose weakly registered object has been collected.
+     */
+    void expungeStaleEntries() {
+        for (Reference<?> ref; (ref = collected.poll()) != null; ) {
+            Instance instance = ((ReferenceKey.WeakKey) ref).instance;
+            if(instance!=null) {
                 try {
-                    mbeanServer.unregisterMBean(instance.getObjectName());
-                } catch (Exception e) {
-                    logger.error("Error while unregistering an ambean {}", instance, e);
+                    unregister(instance);
+                } catch (Exception ex) {
+                    logger.error("Error while unregistering collected ambean {}", instance, ex);
+                    synchronized (instance) {
+                        forget(instance);
+                    }
                 }
             }
         }
-        ambeans.clear();
+    }
+
+    /**
+     * Periodically unregister collected objects, so they are unregistered even if the adaptor is not called anymore.
+     * Must be called once the weakly registered instance is in the registry.
+     */
+    void startExpunging() {
+        synchronized (collected) {
+            if(expungeTask==null) {
+                expungeTask = SharedExecutors.scheduler().scheduleWithFixedDelay(this::expungePeriodically,
+                        EXPUNGE_INTERVAL, EXPUNGE_INTERVAL, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void expungePeriodically() {
+        expungeStaleEntries();
+        synchronized (collected) {
+            if(ambeans.isEmpty() && expungeTask!=null) {
+                // Restarted by the next weak registration
+                expungeTask.cancel(false);
+                expungeTask = null;
+            }
+        }
+    }
+
+    private static final Object[] NO_PARAMS = new Object[0];
+
+    /** Marker of an attribute value which cannot be read. */
+    private static final Object FAILED_READ = new Object();
+
+    /** Marker of a snapshot read as null. */
+    private static final Object NO_SNAPSHOT = new Object();
+
+    /**
+     * Look for a generated adapter for the specified AMBean class.
+     * @param clazz AMBean class.
+     * @return The adapter, null if no adapter is available.
+     */
+    static AMBeanAdapter findAdapter(Class<?> clazz) {
+        ClassLoader loader = clazz.getClassLoader();
+        if(loader==null) {
+            return null;
+        }
+        String packageName = clazz.getPackageName();
+        String simpleName = packageName.isEmpty() ? clazz.getName() : clazz.getName().substring(packageName.length() + 1);
+        String adapterName = (packageName.isEmpty() ? "" : packageName + ".") + simpleName.replace('$', '_') + AMBeanAdapter.CLASS_SUFFIX;
+        try {
+            Class<?> adapterClass = Class.forName(adapterName, true, loader);
+            if(AMBeanAdapter.class.isAssignableFrom(adapterClass)) {
+                AMBeanAdapter adapter = (AMBeanAdapter) adapterClass.getDeclaredConstructor().newInstance();
+                if(adapter.getBeanClass()==clazz) {
+                    return adapter;
+                }
+            }
+        } catch (ClassNotFoundException | LinkageError ex) {
+            // No adapter available, fall back to reflection
+        } catch (ReflectiveOperationException ex) {
+            LoggerFactory.getLogger(AjmxAdaptorImpl.class).warn("Cannot instantiate adapter {}", adapterName, ex);
+        }
+        return null;
     }
 
     static String getTypeName(Class<?> clazz) {
@@ -309,12 +982,7 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
         }
     }
 
-    private static MBeanParameterInfo introspectParameter(int idx, Class<?> type, Annotation[] annots) {
-        MBeanOperationParam paramAnnot = Arrays.stream(annots)
-                .map(MBeanOperationParam.class::cast)
-                .filter(Objects::nonNull)
-                .findAny().orElse(null);
-
+    private static MBeanParameterInfo introspectParameter(int idx, Class<?> type, MBeanOperationParam paramAnnot) {
         String name = null;
         String description = null;
         if(paramAnnot!=null) {
@@ -328,36 +996,81 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
         return new MBeanParameterInfo(name, getTypeName(type), description);
     }
 
+    /**
+     * Name of the attribute read by a getter method.
+     */
+    static String getterAttributeName(String methodName, Class<?> returnType) {
+        if(methodName.startsWith("get") && methodName.length()>3) {
+            return toCamelCase(methodName.substring(3));
+        } else if(methodName.startsWith("is") && methodName.length()>2 && returnType==Boolean.class) {
+            return toCamelCase(methodName.substring(2));
+        } else {
+            return methodName;
+        }
+    }
+
     private static String toCamelCase(final String str) {
         String first = ""+str.charAt(0);
         return first.toLowerCase()+str.substring(1);
     }
 
-    class ClassDescriptor {
+    static class ClassDescriptor {
 
         public class AttributeDescriptor {
-            Field field;
             MBeanAttribute fieldAttr;
+            AMBeanAdapter.Reader fieldReader;
+            AMBeanAdapter.Writer fieldWriter;
+
+            AMBeanAdapter.Reader getter;
+            AMBeanAdapter.Writer setter;
 
-            Method getMethod;
-            Method setMethod;
             String name;
             String description;
             Class<?> type;
 
+            AMBeanAdapter.Reader reader;
+            AMBeanAdapter.Writer writer;
+
+            /** Duration of cached values, in nanoseconds, 0 if not cached. */
+            long cacheTtl = 0;
+            /** Index of the cached value in instances, -1 if not cached. */
+            int cacheSlot = -1;
+            /** Interval of background refreshes, in nanoseconds, 0 if not refreshed. */
+            long refreshInterval = 0;
+            /** Index of the refreshed value in instances, -1 if not refreshed. */
+            int refreshSlot = -1;
+            /** Index of the snapshot holding the attribute value, -1 if not a snapshot component. */
+            int snapshotSlot = -1;
+            /** Reader of the attribute value from its snapshot. */
+            AMBeanAdapter.Reader componentReader;
+            /** Index of the statistics of the timed operation holding the attribute value, -1 if not an operation statistic. */
+            int timerSlot = -1;
+
             MBeanAttributeInfo info;
 
+            AttributeDescriptor() {
+            }
+
             public AttributeDescriptor(Field field, MBeanAttribute attr) {
-                introspectField(field, attr);
+                field.setAccessible(true);
+                introspectField(field.getName(), field.getType(), attr,
+                        MBeanAttribute.Helpers.canRead(attr) ? Accessors.fieldReader(field) : null,
+                        // Final fields are read-only, as with generated adapters
+                        MBeanAttribute.Helpers.canWrite(attr) && !Modifier.isFinal(field.getModifiers())
+                                ? Accessors.fieldWriter(field) : null);
             }
 
             public AttributeDescriptor(Method method, MBeanAttribute attr) {
                 switch(detectMethodKind(method)) {
                     case Getter:
-                        introspectGetterMethod(method, attr);
+                        method.setAccessible(true);
+                        introspectGetterMethod(method.getName(), method.getReturnType(), attr,
+                                Accessors.methodReader(method));
                         break;
                     case Setter:
-                        introspectSetterMethod(method, attr);
+                        method.setAccessible(true);
+                        introspectSetterMethod(method.getName(), method.getParameterTypes()[0], attr,
+                                Accessors.methodWriter(method));
                         break;
                     default:
                         throw new AttributeDescriptorException("Method '"+method.getName()+"' is not a getter nor a setter.");
@@ -372,99 +1085,226 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
                     throw new IllegalArgumentException("Cant merge attributes having different types");
                 }
 
-                if(other.field!=null) {
-                    if(this.field!=null) {
+                if(other.fieldAttr!=null) {
+                    if(this.fieldAttr!=null) {
                         throw new IllegalArgumentException("Cant merge attributes having both field");
                     } else {
-                        this.field = other.field;
                         this.fieldAttr = other.fieldAttr;
+                        this.fieldReader = other.fieldReader;
+                        this.fieldWriter = other.fieldWriter;
                     }
                 }
-                if(other.getMethod!=null) {
-                    if(this.getMethod!=null) {
+                if(other.getter!=null) {
+                    if(this.getter!=null) {
                         throw new IllegalArgumentException("Cant merge attributes having both get method");
                     } else {
-                        this.getMethod = other.getMethod;
+                        this.getter = other.getter;
                     }
                 }
-                if(other.setMethod!=null) {
-                    if(this.setMethod!=null) {
+                if(other.setter!=null) {
+                    if(this.setter!=null) {
                         throw new IllegalArgumentException("Cant merge attributes having both set method");
                     } else {
-                        this.setMethod = other.setMethod;
+                        this.setter = other.setter;
                     }
                 }
 
                 if(other.description!=null && this.description==null) {
                     this.description = other.description;
                 }
+                if(other.cacheTtl!=0 && this.cacheTtl==0) {
+                    this.cacheTtl = other.cacheTtl;
+                }
+                if(other.refreshInterval!=0 && this.refreshInterval==0) {
+                    this.refreshInterval = other.refreshInterval;
+                }
 
                 updateInfo();
             }
 
             void updateInfo() {
-                info = new MBeanAttributeInfo(this.name, getTypeName(type), this.description,
+                info = new MBeanAttributeInfo(this.name, getTypeName(getValueType()), this.description,
                         canRead(), canWrite(), getType()==Boolean.class && canRead());
+                bindAccessors();
+            }
+
+            /**
+             * Check if the attribute holds a metric, exposed as its value.
+             */
+            boolean isMetric() {
+                return LongMetric.class.isAssignableFrom(type) || DoubleMetric.class.isAssignableFrom(type);
+            }
+
+            /**
+             * Type of the values of the attribute, which differs from its member type for metrics.
+             */
+            public Class<?> getValueType() {
+                if(LongMetric.class.isAssignableFrom(type)) {
+                    return long.class;
+                } else if(DoubleMetric.class.isAssignableFrom(type)) {
+                    return double.class;
+                }
+                return type;
+            }
+
+            /**
+             * Bind the reader and writer to the members of the attribute.
+             * Methods take precedence over field.
+             */
+            void bindAccessors() {
+                if(getter!=null) {
+                    reader = getter;
+                } else if(fieldAttr!=null && MBeanAttribute.Helpers.canRead(fieldAttr)) {
+                    reader = fieldReader;
+                } else {
+                    reader = null;
+                }
+                if(setter!=null) {
+                    writer = setter;
+                } else if(fieldWriter!=null) {
+                    writer = fieldWriter;
+                } else {
+                    writer = null;
+                }
+                if(isMetric()) {
+                    // Metrics are read-only, their value is read in place of the metric itself
+                    writer = null;
+                    if(reader!=null) {
+                        AMBeanAdapter.Reader metricReader = reader;
+                        reader = LongMetric.class.isAssignableFrom(type)
+                                ? obj -> {
+                                    LongMetric metric = (LongMetric) metricReader.get(obj);
+                                    return metric!=null ? metric.longValue() : null;
+                                }
+                                : obj -> {
+                                    DoubleMetric metric = (DoubleMetric) metricReader.get(obj);
+                                    return metric!=null ? metric.doubleValue() : null;
+                                };
+                    }
+                }
             }
 
-            protected void introspectField(Field field, MBeanAttribute attr) {
-                this.field = field;
+            protected void introspectField(String fieldName, Class<?> fieldType, MBeanAttribute attr,
+                                           AMBeanAdapter.Reader reader, AMBeanAdapter.Writer writer) {
                 this.fieldAttr = attr;
-                field.setAccessible(true);
+                this.fieldReader = reader;
+                this.fieldWriter = writer;
 
                 if(!attr.name().isEmpty()) {
                     this.name = attr.name();
                 } else {
-                    this.name = field.getName();
+                    this.name = fieldName;
                 }
 
                 if(!attr.description().isEmpty()) {
                     this.description = attr.description();
                 }
 
-                type = field.getType();
+                if(MBeanAttribute.Helpers.canRead(attr)) {
+                    this.cacheTtl = TimeUnit.MILLISECONDS.toNanos(attr.cacheTtl());
+                    this.refreshInterval = TimeUnit.MILLISECONDS.toNanos(attr.refreshInterval());
+                }
+
+                type = fieldType;
 
                 updateInfo();
             }
 
-            protected void introspectGetterMethod(Method method, MBeanAttribute attr) {
-                getMethod = method;
-                getMethod.setAccessible(true);
+            protected void introspectGetterMethod(String methodName, Class<?> returnType, MBeanAttribute attr,
+                                                  AMBeanAdapter.Reader reader) {
+                getter = reader;
 
                 if(!attr.name().isEmpty()) {
                     this.name = attr.name();
                 } else {
-                    String name = getMethod.getName();
-                    if(name.startsWith("get") && name.length()>3) {
-                        this.name = toCamelCase(name.substring(3));
-                    } else if(name.startsWith("is") && name.length()>2 && getMethod.getReturnType()==Boolean.class) {
-                        this.name = toCamelCase(name.substring(2));
-                    } else {
-                        this.name = name;
-                    }
+                    this.name = getterAttributeName(methodName, returnType);
                 }
 
                 if(!attr.description().isEmpty()) {
                     this.description = attr.description();
                 }
 
-                type = getMethod.getReturnType();
+                this.cacheTtl = TimeUnit.MILLISECONDS.toNanos(attr.cacheTtl());
+                this.refreshInterval = TimeUnit.MILLISECONDS.toNanos(attr.refreshInterval());
+
+                type = returnType;
 
                 updateInfo();
             }
 
-            protected void introspectSetterMethod(Method method, MBeanAttribute attr) {
-                setMethod = method;
-                setMethod.setAccessible(true);
+            /**
+             * Introspect a component of a snapshot, read-only.
+             */
+            protected void introspectSnapshotComponent(String name, Class<?> type, String description, int slot,
+                                                       AMBeanAdapter.Reader holder, AMBeanAdapter.Reader component) {
+                this.name = name;
+                this.description = description;
+                this.type = type;
+                this.snapshotSlot = slot;
+                this.componentReader = component;
+                getter = obj -> {
+                    Object snapshot = holder.get(obj);
+                    return snapshot!=null ? component.get(snapshot) : null;
+                };
+                updateInfo();
+            }
+
+            /**
+             * Introspect a statistic of a timed operation, read-only.
+             * Statistics are held by AMBean instances, not by objects, so the attribute has no reader
+             * and its value is read from the instance timers, see {@link #getStatisticValue(Object)}.
+             */
+            protected void introspectTimerStatistic(String name, Class<?> type, String description, int slot,
+                                                    AMBeanAdapter.Reader statistic) {
+                this.name = name;
+                this.description = description;
+                this.type = type;
+                this.timerSlot = slot;
+                this.componentReader = statistic;
+                updateInfo();
+            }
+
+            /**
+             * Check if the attribute is a statistic of a timed operation, held by AMBean instances.
+             */
+            boolean isStatistic() {
+                return timerSlot>=0;
+            }
+
+            /**
+             * Read a statistic of a timed operation from the timer of its AMBean instance.
+             */
+            public Object getStatisticValue(Object timer) throws MBeanException, ReflectionException {
+                return getComponentValue(timer);
+            }
+
+            /**
+             * Read the attribute value from a snapshot.
+             */
+            public Object getComponentValue(Object snapshot) throws MBeanException, ReflectionException {
+                if(snapshot==null) {
+                    return null;
+                }
+                try {
+                    return componentReader.get(snapshot);
+                } catch (ClassCastException e) {
+                    throw new ReflectionException(e);
+                } catch (Throwable e) {
+                    throw new MBeanException(Accessors.asException(e));
+                }
+            }
+
+            protected void introspectSetterMethod(String methodName, Class<?> paramType, MBeanAttribute attr,
+                                                  AMBeanAdapter.Writer writer) {
+                setter = writer;
 
                 if(!attr.name().isEmpty()) {
                     this.name = attr.name();
                 } else {
-                    String name = setMethod.getName();
-                    if(name.startsWith("set") && name.length()>3) {
-                        this.name = toCamelCase(name.substring(3));
+                    if(methodName.startsWith("set") && methodName.length()>3) {
+                        this.name = toCamelCase(methodName.substring(3));
                     } else {
-                        this.name = name;
+                        this.name = methodName;
                     }
                 }
 
@@ -472,10 +1312,11 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
                     this.description = attr.description();
                 }
 
-                type = setMethod.getParameterTypes()[0];
+                type = paramType;
 
                 info = new MBeanAttributeInfo(this.name, getTypeName(type), this.description,
                         false, true,false);
+                bindAccessors();
             }
 
             public String getName() {
@@ -495,101 +1336,152 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
             }
 
             public boolean canRead() {
-                return (field != null && MBeanAttribute.Helpers.canRead(fieldAttr))
-                        || (getMethod != null);
+                return (fieldAttr != null && MBeanAttribute.Helpers.canRead(fieldAttr))
+                        || (getter != null) || isStatistic();
             }
 
             public boolean canWrite() {
-                return (field != null && MBeanAttribute.Helpers.canWrite(fieldAttr))
-                        || (setMethod != null);
-            }
-
-            public Object getValue(Object obj) throws MBeanException, ReflectionException, AttributeNotFoundException {
-                if(getMethod!=null) {
-                    try {
-                        return getMethod.invoke(obj);
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        throw new MBeanException(e);
-                    }
-                } else if(field!=null) {
-                    if (MBeanAttribute.Helpers.canRead(fieldAttr)) {
-                        try {
-                            return field.get(obj);
-                        } catch (IllegalArgumentException e) {
-                            throw new ReflectionException(e);
-                        } catch (Exception e) {
-                            throw new MBeanException(e);
-                        }
-                    }
+                return !isMetric() && (fieldWriter != null || setter != null);
+            }
+
+            public Object getValue(Object obj) throws MBeanException, ReflectionException, AttributeNotFoundException {
+                if(isStatistic()) {
+                    throw new AttributeNotFoundException("Attribute " + this.name + " is a statistic of timed operations, only readable from its AMBean.");
+                }
+                if(reader==null) {
+                    throw new AttributeNotFoundException("Attribute " + this.name + " is not readable.");
+                }
+                try {
+                    return reader.get(obj);
+                } catch (ClassCastException e) {
+                    throw new ReflectionException(e);
+                } catch (Throwable e) {
+                    throw new MBeanException(Accessors.asException(e));
                 }
-                throw new AttributeNotFoundException("Attribute " + this.name + " is not readable.");
             }
 
             public void setValue(Object obj, Object value) throws InvalidAttributeValueException, MBeanException, ReflectionException, AttributeNotFoundException {
-                if(setMethod!=null) {
-                    try {
-                        setMethod.invoke(obj, value);
-                        return;
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        throw new MBeanException(e);
-                    }
-                } else if(field!=null) {
-                    if (MBeanAttribute.Helpers.canWrite(fieldAttr)) {
-                        try {
-                            field.set(obj, value);
-                            return;
-                        } catch (IllegalArgumentException e) {
-                            throw new ReflectionException(e);
-                        } catch (IllegalAccessException e) {
-                            throw new InvalidAttributeValueException();
-                        } catch (Exception e) {
-                            throw new MBeanException(e);
-                        }
-                    }
+                if(writer==null) {
+                    throw new AttributeNotFoundException("Attribute " + this.name + " is not writable.");
+                }
+                if(value==null && type.isPrimitive()) {
+                    throw new InvalidAttributeValueException("Attribute " + this.name + " cannot be set to null.");
+                }
+                try {
+                    writer.set(obj, value);
+                } catch (ClassCastException e) {
+                    throw new ReflectionException(e);
+                } catch (Throwable e) {
+                    throw new MBeanException(Accessors.asException(e));
                 }
-                throw new AttributeNotFoundException("Attribute " + this.name + " is not writable.");
             }
         }
 
         public class OperationDescriptor {
             MBeanOperation op;
-            Method method;
             String name;
             String description;
 
+            AMBeanAdapter.Invoker invoker;
+
+            /** Duration of cached results, in nanoseconds, 0 if not cached. */
+            long cacheTtl = 0;
+            /** Index of the result cache in instances, -1 if not cached. */
+            int cacheSlot = -1;
+            /** Index of the invocation statistics in instances, -1 if not timed. */
+            int timerSlot = -1;
+
+            /** Interned type names of parameters. */
+            String[] signature;
+            /** Interned type names of parameters, with primitive and wrapper types swapped. */
+            String[] alternateSignature;
+
             MBeanOperationInfo info;
 
             public OperationDescriptor(Method method, MBeanOperation op) {
-                this.method = method;
                 this.op = op;
-                introspect();
+                method.setAccessible(true);
+                Annotation[][] annotations = method.getParameterAnnotations();
+                MBeanOperationParam[] params = new MBeanOperationParam[method.getParameterCount()];
+                for(int p=0; p<params.length; p++) {
+                    params[p] = Arrays.stream(annotations[p])
+                            .filter(MBeanOperationParam.class::isInstance)
+                            .map(MBeanOperationParam.class::cast)
+                            .findAny().orElse(null);
+                }
+                introspect(method.getName(), method.getReturnType(), method.getParameterTypes(), params,
+                        Accessors.methodInvoker(method));
             }
 
-            private MBeanParameterInfo[] introspectSignature() {
-                Class<?>[] parameterTypes = method.getParameterTypes();
-                Annotation[][] annotations = method.getParameterAnnotations();
-                List<MBeanParameterInfo> params = new ArrayList<>();
-                for(int p=0; p<method.getParameterCount(); p++) {
-                    params.add(introspectParameter(p, parameterTypes[p], annotations[p]));
+            public OperationDescriptor(String methodName, Class<?> returnType, Class<?>[] parameterTypes,
+                                       MBeanOperationParam[] params, MBeanOperation op, AMBeanAdapter.Invoker invoker) {
+                this.op = op;
+                introspect(methodName, returnType, parameterTypes, params, invoker);
+            }
+
+            private MBeanParameterInfo[] introspectSignature(Class<?>[] parameterTypes, MBeanOperationParam[] params) {
+                MBeanParameterInfo[] infos = new MBeanParameterInfo[parameterTypes.length];
+                for(int p=0; p<parameterTypes.length; p++) {
+                    infos[p] = introspectParameter(p, parameterTypes[p], params!=null ? params[p] : null);
                 }
-                return params.toArray(new MBeanParameterInfo[params.size()]);
+                return infos;
             }
 
-            protected void introspect() {
-                method.setAccessible(true);
+            protected void introspect(String methodName, Class<?> returnType, Class<?>[] parameterTypes,
+                                      MBeanOperationParam[] params, AMBeanAdapter.Invoker invoker) {
+                this.invoker = invoker;
 
                 if(!op.name().isEmpty()) {
                     name = op.name();
                 } else {
-                    name = method.getName();
+                    name = methodName;
                 }
 
                 if(!op.description().isEmpty()) {
                     description = op.description();
                 }
 
-                info = new MBeanOperationInfo(name, description, introspectSignature(),
-                        getTypeName(method.getReturnType()), op.impact().value());
+                if(op.cacheTtl()>0) {
+                    if(op.impact()!=MBeanOperation.Impact.INFO) {
+                        throw new OperationDescriptorException("Operation '" + name + "' cannot be cached, its impact is not INFO.");
+                    }
+                    if(op.cacheSize()<1) {
+                        throw new OperationDescriptorException("Operation '" + name + "' cache size must be positive.");
+                    }
+                    cacheTtl = TimeUnit.MILLISECONDS.toNanos(op.cacheTtl());
+                }
+
+                info = new MBeanOperationInfo(name, description, introspectSignature(parameterTypes, params),
+                        getTypeName(returnType), op.impact().value());
+
+                signature = new String[parameterTypes.length];
+                alternateSignature = new String[parameterTypes.length];
+                for(int p=0; p<parameterTypes.length; p++) {
+                    Class<?> type = parameterTypes[p];
+                    Class<?> alternate = type.isPrimitive() ? MethodType.methodType(type).wrap().returnType()
+                            : MethodType.methodType(type).unwrap().returnType();
+                    signature[p] = info.getSignature()[p].getType().intern();
+                    alternateSignature[p] = getTypeName(alternate).intern();
+                }
+            }
+
+            /**
+             * Check if the operation accepts the specified signature.
+             * Primitive types and their wrapper types are considered as equivalent.
+             */
+            boolean matches(String[] types) {
+                if(types.length!=signature.length) {
+                    return false;
+                }
+                for(int p=0; p<types.length; p++) {
+                    String type = types[p];
+                    // Reference comparison first, callers usually reuse signatures from MBean info
+                    if(type!=signature[p] && type!=alternateSignature[p]
+                            && !type.equals(signature[p]) && !type.equals(alternateSignature[p])) {
+                        return false;
+                    }
+                }
+                return true;
             }
 
             public String getName() {
@@ -604,8 +1496,14 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
                 return info;
             }
 
-            public Object invoke(Object obj, Object... params) throws InvocationTargetException, IllegalAccessException {
-                return method.invoke(obj, params);
+            public Object invoke(Object obj, Object... params) throws MBeanException, ReflectionException {
+                try {
+                    return invoker.invoke(obj, params != null ? params : NO_PARAMS);
+                } catch (ClassCastException | IllegalArgumentException e) {
+                    throw new ReflectionException(e);
+                } catch (Throwable e) {
+                    throw new MBeanException(Accessors.asException(e));
+                }
             }
         }
 
@@ -615,8 +1513,40 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
         MBeanInfo info = null;
 
         Map<String, AttributeDescriptor> attributes = new HashMap<>();
-        Map<String, OperationDescriptor> operations = new HashMap<>();
+        /** Attributes in MBean info order. */
+        AttributeDescriptor[] attributeSlots;
+        /** Interned names of attributes in MBean info order. */
+        String[] attributeSlotNames;
+
+        /** Readers of the snapshots whose components are exposed as attributes, by snapshot slot. */
+        List<AMBeanAdapter.Reader> snapshotHolders = new ArrayList<>();
+        /** Snapshot slots of the attributes holding a {@link SnapshotMetric}, by attribute name. */
+        Map<String, Integer> metricSlots = new HashMap<>();
+        /** Snapshot slots of the attributes holding a {@link QuantileSketch}, by attribute name. */
+        Map<String, Integer> sketchSlots = new HashMap<>();
+        /** Readers of the attributes holding a {@link Meter}. */
+        List<AMBeanAdapter.Reader> meters = new ArrayList<>();
 
+        /** Lock to read attributes consistently, null if none. */
+        SnapshotLock snapshotLock = null;
+
+        /** Operations by name, then overloads of each name. */
+        Map<String, OperationDescriptor[]> operations = new HashMap<>();
+
+        /** Number of attributes whose values are cached. */
+        int cachedAttributes = 0;
+
+        /** Attributes refreshed in background, by refresh slot. */
+        List<AttributeDescriptor> refreshedAttributes = new ArrayList<>();
+
+        /** Operations whose results are cached, by cache slot. */
+        List<OperationDescriptor> cachedOperations = new ArrayList<>();
+
+        /** Names of timed operations, by timer slot. */
+        List<String> timedOperations = new ArrayList<>();
+
+        /** True if members were described by a generated adapter, false if introspected by reflection. */
+        boolean adapted = false;
 
         public ClassDescriptor(Class<?> clazz, MBean annot) {
             this.clazz = clazz;
@@ -673,32 +1603,255 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
             }
         }
 
-        public Object invoke(String name, Object obj, Object ... params) throws MBeanException {
-            OperationDescriptor operation = operations.get(name);
-            if(operation==null) {
-                throw new IllegalArgumentException("Operation '" + name + "' not found for object of type '" + obj.getClass().getName() + "'");
+        public Object invoke(String name, Object obj, Object ... params) throws MBeanException, ReflectionException {
+            return getOperation(name, params, null).invoke(obj, params);
+        }
+
+        /**
+         * Check if the names are the names of all attributes, in MBean info order.
+         */
+        boolean isAllAttributes(String[] names) {
+            if(names.length!=attributeSlotNames.length) {
+                return false;
+            }
+            for (int i = 0; i < names.length; i++) {
+                if(names[i]!=attributeSlotNames[i] && !attributeSlotNames[i].equals(names[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Look for the operation to invoke.
+         * When no signature is specified, an operation which is not overloaded is returned, its invocation checks parameters.
+         * @param name Operation name.
+         * @param params Parameters, to choose an overload by parameter count when no signature is specified.
+         * @param signature Parameter type names, null if unknown.
+         * @return The operation.
+         * @throws ReflectionException If no overload or several ones match.
+         */
+        public OperationDescriptor getOperation(String name, Object[] params, String[] signature) throws ReflectionException {
+            OperationDescriptor[] overloads = operations.get(name);
+            if(overloads==null) {
+                throw new IllegalArgumentException("Operation '" + name + "' not found for object of type '" + clazz.getName() + "'");
             }
-            try {
-                return operation.invoke(obj, params);
-            } catch (InvocationTargetException | IllegalAccessException e) {
-                throw new MBeanException(e);
+            if(overloads.length==1 && signature==null) {
+                return overloads[0];
+            }
+            OperationDescriptor found = null;
+            int count = params!=null ? params.length : 0;
+            for (OperationDescriptor overload : overloads) {
+                if(signature!=null ? overload.matches(signature) : overload.signature.length==count) {
+                    if(found!=null) {
+                        throw new ReflectionException(new NoSuchMethodException(name), "Operation '" + name + "' is ambiguous");
+                    }
+                    found = overload;
+                }
             }
+            if(found==null) {
+                throw new ReflectionException(new NoSuchMethodException(name), "No overload of operation '" + name + "' matches signature");
+            }
+            return found;
+        }
+
+        void addAttribute(AttributeDescriptor desc) {
+            attributes.merge(desc.getName(), desc, (attr1, attr2)->{attr1.merge(attr2); return attr1;});
+        }
+
+        void addOperation(OperationDescriptor desc) {
+            operations.merge(desc.getName(), new OperationDescriptor[]{desc}, (overloads, added) -> {
+                for (int i = 0; i < overloads.length; i++) {
+                    if(Arrays.equals(overloads[i].signature, desc.signature)) {
+                        // Same signature, last one wins
+                        overloads[i] = desc;
+                        return overloads;
+                    }
+                }
+                OperationDescriptor[] merged = Arrays.copyOf(overloads, overloads.length + 1);
+                merged[overloads.length] = desc;
+                return merged;
+            });
         }
 
         void introspect() {
+            AMBeanAdapter adapter = findAdapter(clazz);
+            if(adapter!=null) {
+                // Use compile-time generated adapter in place of reflection
+                adapter.describe(new AdapterRegistrar());
+                adapted = true;
+            } else {
+                introspectMembers();
+                // Adapters are not generated for classes with snapshots
+                introspectSnapshots();
+            }
+            introspectSnapshotMetrics();
+
+            for (AttributeDescriptor attr : attributes.values()) {
+                if(attr.reader==null) {
+                    continue;
+                }
+                if(attr.refreshInterval>0) {
+                    attr.refreshSlot = refreshedAttributes.size();
+                    refreshedAttributes.add(attr);
+                } else if(attr.cacheTtl>0) {
+                    attr.cacheSlot = cachedAttributes++;
+                }
+            }
+            for (OperationDescriptor[] overloads : operations.values()) {
+                for (OperationDescriptor op : overloads) {
+                    if(op.cacheTtl>0) {
+                        op.cacheSlot = cachedOperations.size();
+                        cachedOperations.add(op);
+                    }
+                }
+            }
+            introspectTimedOperations();
+
+            if(annot!=null && !annot.snapshotLock().isEmpty()) {
+                snapshotLock = SnapshotLock.of(clazz, annot.snapshotLock());
+            }
+
+            attributeSlots = attributes.values().toArray(new AttributeDescriptor[0]);
+            attributeSlotNames = new String[attributeSlots.length];
+            for (int i = 0; i < attributeSlots.length; i++) {
+                attributeSlotNames[i] = attributeSlots[i].getName().intern();
+            }
+
+            info = new MBeanInfo(clazz.getName(), getDescription(),
+                    Arrays.stream(attributeSlots).map(AttributeDescriptor::getInfo).toArray(size -> new MBeanAttributeInfo[size]),
+                    new MBeanConstructorInfo[]{},
+                    operations.values().stream().flatMap(Arrays::stream).map(OperationDescriptor::getInfo).toArray(size -> new MBeanOperationInfo[size]),
+                    new MBeanNotificationInfo[]{}
+            );
+        }
+
+        /**
+         * Look for fields holding snapshots, see {@link MBeanSnapshot}.
+         */
+        void introspectSnapshots() {
+            for (Field field : clazz.getDeclaredFields()) {
+                MBeanSnapshot snapshot = field.getAnnotation(MBeanSnapshot.class);
+                if(snapshot!=null) {
+                    int slot = snapshotHolders.size();
+                    AMBeanAdapter.Reader holder = SnapshotComponents.holder(field);
+                    snapshotHolders.add(holder);
+                    for (SnapshotComponents.Component component : SnapshotComponents.of(SnapshotComponents.snapshotType(field))) {
+                        AttributeDescriptor desc = new AttributeDescriptor();
+                        String description = component.description!=null ? component.description
+                                : (snapshot.description().isEmpty() ? null : snapshot.description());
+                        desc.introspectSnapshotComponent(snapshot.prefix() + component.name, component.type, description,
+                                slot, holder, component.reader);
+                        addAttribute(desc);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Replace attributes holding a {@link SnapshotMetric} by the components of its snapshots.
+         */
+        void introspectSnapshotMetrics() {
+            List<AttributeDescriptor> metrics = new ArrayList<>();
+            for (AttributeDescriptor attr : attributes.values()) {
+                if(SnapshotMetric.class.isAssignableFrom(attr.getType())) {
+                    metrics.add(attr);
+                }
+            }
+            for (AttributeDescriptor attr : metrics) {
+                attributes.remove(attr.getName());
+                if(attr.reader==null) {
+                    continue;
+                }
+                int slot = snapshotHolders.size();
+                AMBeanAdapter.Reader metricReader = attr.reader;
+                AMBeanAdapter.Reader holder = obj -> {
+                    SnapshotMetric<?> metric = (SnapshotMetric<?>) metricReader.get(obj);
+                    return metric!=null ? metric.snapshot() : null;
+                };
+                snapshotHolders.add(holder);
+                metricSlots.put(attr.getName(), slot);
+                if(QuantileSketch.class.isAssignableFrom(attr.getType())) {
+                    sketchSlots.put(attr.getName(), slot);
+                }
+                if(Meter.class.isAssignableFrom(attr.getType())) {
+                    meters.add(metricReader);
+                }
+                for (SnapshotComponents.Component component : SnapshotComponents.of(SnapshotComponents.metricSnapshotType(attr.getType()))) {
+                    AttributeDescriptor desc = new AttributeDescriptor();
+                    String description = component.description!=null ? component.description : attr.getDescription();
+                    desc.introspectSnapshotComponent(attr.getName() + Character.toUpperCase(component.name.charAt(0)) + component.name.substring(1),
+                            component.type, description, slot, holder, component.reader);
+                    addAttribute(desc);
+                }
+            }
+        }
+
+        /**
+         * Assign timer slots to timed operations, overloads sharing the same slot,
+         * and add the attributes exposing their statistics.
+         */
+        void introspectTimedOperations() {
+            for (OperationDescriptor[] overloads : operations.values()) {
+                int slot = -1;
+                for (OperationDescriptor op : overloads) {
+                    if(op.op.timed()) {
+                        if(slot<0) {
+                            slot = timedOperations.size();
+                            timedOperations.add(op.getName());
+                        }
+                        op.timerSlot = slot;
+                    }
+                }
+                if(slot<0) {
+                    continue;
+                }
+                String name = overloads[0].getName();
+                addTimerStatistic(name + "Invocations", long.class, "Number of invocations of " + name, slot,
+                        timer -> ((OperationTimer) timer).invocations.sum());
+                addTimerStatistic(name + "Errors", long.class, "Number of failed invocations of " + name, slot,
+                        timer -> ((OperationTimer) timer).errors.sum());
+                for (SnapshotComponents.Component component : SnapshotComponents.of(Histogram.Snapshot.class)) {
+                    String componentName = Character.toUpperCase(component.name.charAt(0)) + component.name.substring(1);
+                    addTimerStatistic(name + "Latency" + componentName, component.type,
+                            component.description + ", invocation latency of " + name + " in nanoseconds", slot,
+                            timer -> component.reader.get(((OperationTimer) timer).latency.snapshot()));
+                }
+            }
+        }
+
+        private void addTimerStatistic(String name, Class<?> type, String description, int slot, AMBeanAdapter.Reader statistic) {
+            if(attributes.containsKey(name)) {
+                throw new OperationDescriptorException("Statistic attribute '" + name + "' of timed operation conflicts with an attribute.");
+            }
+            AttributeDescriptor desc = new AttributeDescriptor();
+            desc.introspectTimerStatistic(name, type, description, slot, statistic);
+            attributes.put(name, desc);
+        }
+
+        /**
+         * Read the current snapshot of the object.
+         */
+        Object readSnapshot(int slot, Object obj) throws MBeanException {
+            try {
+                return snapshotHolders.get(slot).get(obj);
+            } catch (Throwable e) {
+                throw new MBeanException(Accessors.asException(e));
+            }
+        }
+
+        void introspectMembers() {
             // Look for annotated attributes.
             for (Field field : clazz.getDeclaredFields()) {
                 MBeanAttribute attr = field.getAnnotation(MBeanAttribute.class);
                 if(attr!=null) {
-                    AttributeDescriptor desc = new AttributeDescriptor(field, attr);
-                    attributes.merge(desc.getName(), desc, (attr1, attr2)->{attr1.merge(attr2); return attr1;});
+                    addAttribute(new AttributeDescriptor(field, attr));
                 }
             }
             for (Method method : clazz.getDeclaredMethods()) {
                 MBeanAttribute attr = method.getAnnotation(MBeanAttribute.class);
                 if(attr!=null) {
-                    AttributeDescriptor desc = new AttributeDescriptor(method, attr);
-                    attributes.merge(desc.getName(), desc, (attr1, attr2)->{attr1.merge(attr2); return attr1;});
+                    addAttribute(new AttributeDescriptor(method, attr));
                 }
             }
 
@@ -706,17 +1859,42 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
             for (Method method : clazz.getDeclaredMethods()) {
                 MBeanOperation op = method.getAnnotation(MBeanOperation.class);
                 if(op!=null) {
-                    OperationDescriptor desc = new OperationDescriptor(method, op);
-                    operations.put(desc.getName(), desc);
+                    addOperation(new OperationDescriptor(method, op));
                 }
             }
+        }
 
-            info = new MBeanInfo(clazz.getName(), getDescription(),
-                    attributes.values().stream().map(AttributeDescriptor::getInfo).toArray(size -> new MBeanAttributeInfo[size]),
-                    new MBeanConstructorInfo[]{},
-                    operations.values().stream().map(OperationDescriptor::getInfo).toArray(size -> new MBeanOperationInfo[size]),
-                    new MBeanNotificationInfo[]{}
-            );
+        /**
+         * Build descriptors from members declared by a generated adapter.
+         */
+        class AdapterRegistrar implements AMBeanAdapter.Registrar {
+
+            @Override
+            public void field(String fieldName, Class<?> type, MBeanAttribute attr, AMBeanAdapter.Reader reader, AMBeanAdapter.Writer writer) {
+                AttributeDescriptor desc = new AttributeDescriptor();
+                desc.introspectField(fieldName, type, attr, reader, writer);
+                addAttribute(desc);
+            }
+
+            @Override
+            public void getter(String methodName, Class<?> type, MBeanAttribute attr, AMBeanAdapter.Reader reader) {
+                AttributeDescriptor desc = new AttributeDescriptor();
+                desc.introspectGetterMethod(methodName, type, attr, reader);
+                addAttribute(desc);
+            }
+
+            @Override
+            public void setter(String methodName, Class<?> type, MBeanAttribute attr, AMBeanAdapter.Writer writer) {
+                AttributeDescriptor desc = new AttributeDescriptor();
+                desc.introspectSetterMethod(methodName, type, attr, writer);
+                addAttribute(desc);
+            }
+
+            @Override
+            public void operation(String methodName, Class<?> returnType, Class<?>[] parameterTypes, MBeanOperationParam[] params,
+                                  MBeanOperation op, AMBeanAdapter.Invoker invoker) {
+                addOperation(new OperationDescriptor(methodName, returnType, parameterTypes, params, op, invoker));
+            }
         }
 
         public MBeanInfo getMBeanInfo() {
@@ -729,18 +1907,161 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
 
     public class Instance implements DynamicMBean  {
 
-        Object object;
+        /** Registered object, null when only weakly referenced by its key. */
+        volatile Object object;
+        /** Registry key of the object, null while not registered. */
+        volatile Object key;
         ClassDescriptor descriptor;
         String type;
         String name;
 
         ObjectName objectName = null;
 
+        /** Cached attribute values, by cache slot of their descriptor. */
+        final CachedValue[] cachedValues;
+
+        /** Refreshed attribute values, by refresh slot of their descriptor. */
+        final RefreshedValue[] refreshedValues;
+
+        /** Cached operation results, by cache slot of their descriptor. */
+        final OperationCache[] operationCaches;
+
+        /** Statistics of timed operations, by timer slot of their descriptor. */
+        final OperationTimer[] operationTimers;
+
+        /** Scheduled refreshes while registered, null otherwise. */
+        ScheduledFuture<?>[] refreshTasks = null;
+
+        /** Statistics of accesses when the adaptor monitors itself, null otherwise. */
+        volatile TypeStatistics statistics = null;
+
+        /** Meters ticked while registered, null otherwise. */
+        Meter[] tickedMeters = null;
+
         public Instance(Object object, ClassDescriptor descriptor, String type, String name) {
             this.object = object;
             this.descriptor = descriptor;
             this.type = type;
             this.name = name;
+            this.cachedValues = new CachedValue[descriptor.cachedAttributes];
+            for (int i = 0; i < cachedValues.length; i++) {
+                cachedValues[i] = new CachedValue();
+            }
+            this.refreshedValues = new RefreshedValue[descriptor.refreshedAttributes.size()];
+            for (int i = 0; i < refreshedValues.length; i++) {
+                refreshedValues[i] = new RefreshedValue();
+            }
+            this.operationCaches = new OperationCache[descriptor.cachedOperations.size()];
+            for (int i = 0; i < operationCaches.length; i++) {
+                operationCaches[i] = new OperationCache(descriptor.cachedOperations.get(i).op.cacheSize());
+            }
+            this.operationTimers = new OperationTimer[descriptor.timedOperations.size()];
+            for (int i = 0; i < operationTimers.length; i++) {
+                operationTimers[i] = new OperationTimer();
+            }
+        }
+
+        /**
+         * Schedule background refreshes of attributes on the shared scheduler.
+         * Refreshes run on the asynchronous executor, a refresh is skipped while the previous one is still running.
+         * Must be called with the instance locked.
+         */
+        void startRefresh() {
+            if(refreshedValues.length==0 || refreshTasks!=null) {
+                return;
+            }
+            ScheduledExecutorService scheduler = SharedExecutors.scheduler();
+            refreshTasks = new ScheduledFuture<?>[refreshedValues.length];
+            for (int i = 0; i < refreshedValues.length; i++) {
+                ClassDescriptor.AttributeDescriptor attr = descriptor.refreshedAttributes.get(i);
+                RefreshedValue slot = refreshedValues[i];
+                refreshTasks[i] = scheduler.scheduleWithFixedDelay(() -> {
+                    if(slot.startRefresh()) {
+                        getAsyncExecutor().execute(() -> refresh(attr, slot));
+                    }
+                }, attr.refreshInterval, attr.refreshInterval, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void refresh(ClassDescriptor.AttributeDescriptor attr, RefreshedValue slot) {
+            try {
+                Object obj = getObject();
+                if(obj!=null) {
+                    long generation = slot.generation();
+                    slot.set(attr.getValue(obj), generation);
+                }
+            } catch (JMException ex) {
+                refreshFailures.increment();
+                logger.debug("Error while refreshing attribute {} of {}", attr.getName(), this, ex);
+            } finally {
+                slot.endRefresh();
+            }
+        }
+
+        /**
+         * Cancel background refreshes.
+         * Must be called with the instance locked.
+         */
+        void stopRefresh() {
+            if(refreshTasks!=null) {
+                for (ScheduledFuture<?> task : refreshTasks) {
+                    task.cancel(false);
+                }
+                refreshTasks = null;
+            }
+        }
+
+        /**
+         * Add the meters of the object to the shared meter ticker.
+         * Meters are read once, when the AMBean is registered.
+         * Must be called with the instance locked.
+         */
+        void startMeters() {
+            Object obj = getObject();
+            if(descriptor.meters.isEmpty() || tickedMeters!=null || obj==null) {
+                return;
+            }
+            List<Meter> found = new ArrayList<>();
+            for (AMBeanAdapter.Reader reader : descriptor.meters) {
+                try {
+                    Meter meter = (Meter) reader.get(obj);
+                    if(meter!=null) {
+                        MeterTicker.shared().add(meter);
+                        found.add(meter);
+                    }
+                } catch (Throwable ex) {
+                    logger.warn("Error while reading meter of {}", this, ex);
+                }
+            }
+            tickedMeters = found.toArray(new Meter[0]);
+        }
+
+        /**
+         * Remove the meters of the object from the shared meter ticker.
+         * Must be called with the instance locked.
+         */
+        void stopMeters() {
+            if(tickedMeters!=null) {
+                for (Meter meter : tickedMeters) {
+                    MeterTicker.shared().remove(meter);
+                }
+                tickedMeters = null;
+            }
+        }
+
+        /**
+         * Drop cached and refreshed values and cached operation results, so they are read again from the object.
+         */
+        void invalidateValues() {
+            for (CachedValue value : cachedValues) {
+                value.invalidate();
+            }
+            for (RefreshedValue value : refreshedValues) {
+                value.invalidate();
+            }
+            for (OperationCache cache : operationCaches) {
+                cache.invalidate();
+            }
         }
 
         public Instance(Object object, ClassDescriptor descriptor, String name) {
@@ -770,7 +2091,7 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
                 name = descriptor.getAnnot().name();
             }
             if(name==null || name.isEmpty()) {
-                name = Integer.toString(object.hashCode());
+                name = Integer.toString(getObject().hashCode());
             }
             return name;
         }
@@ -779,6 +2100,31 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
             return descriptor.getDescription();
         }
 
+        /**
+         * Registered object, null if it was weakly registered and has been collected.
+         */
+        public Object getObject() {
+            Object obj = object;
+            if(obj==null && key instanceof ReferenceKey.WeakKey) {
+                obj = ((ReferenceKey.WeakKey) key).get();
+            }
+            return obj;
+        }
+
+        /**
+         * Registered object, to access its attributes or operations.
+         * @throws MBeanException If the object has been collected.
+         */
+        Object target() throws MBeanException {
+            Object obj = getObject();
+            if(obj==null) {
+                expungeStaleEntries();
+                throw new MBeanException(new IllegalStateException("AMBean object has been collected"),
+                        "AMBean object has been collected");
+            }
+            return obj;
+        }
+
         String buildObjectName() {
             return getDomain() + ":type=" + getType() + ",name=" + getName();
             // TODO Add additional data to object name
@@ -802,53 +2148,285 @@ public class AjmxAdaptorImpl implements AjmxAdaptor {
 
         @Override
         public Object getAttribute(String attribute) throws AttributeNotFoundException, MBeanException, ReflectionException {
-            return descriptor.getAttributeValue(attribute, object);
+            TypeStatistics stats = statistics;
+            if(stats==null) {
+                return readAttribute(attribute);
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object value = readAttribute(attribute);
+                failed = false;
+                return value;
+            } finally {
+                stats.recordRead(start, failed);
+            }
+        }
+
+        private Object readAttribute(String attribute) throws AttributeNotFoundException, MBeanException, ReflectionException {
+            ClassDescriptor.AttributeDescriptor attr = descriptor.getAttribute(attribute);
+            if(attr==null) {
+                throw new AttributeNotFoundException();
+            }
+            return read(attr, target());
+        }
+
+        /**
+         * Snapshots read by a batch read, so all components of a snapshot are read from the same one.
+         * @return Slots of snapshots, null if the AMBean has no snapshot.
+         */
+        private Object[] newSnapshots() {
+            int count = descriptor.snapshotHolders.size();
+            return count==0 ? null : new Object[count];
+        }
+
+        /**
+         * Read an attribute during a batch read.
+         * @param snapshots Snapshots already read by the batch, see {@link #newSnapshots()}.
+         */
+        private Object read(ClassDescriptor.AttributeDescriptor attr, Object obj, Object[] snapshots) throws AttributeNotFoundException, MBeanException, ReflectionException {
+            if(attr.snapshotSlot<0 || snapshots==null) {
+                return read(attr, obj);
+            }
+            Object snapshot = snapshots[attr.snapshotSlot];
+            if(snapshot==null) {
+                snapshot = descriptor.readSnapshot(attr.snapshotSlot, obj);
+                snapshots[attr.snapshotSlot] = snapshot!=null ? snapshot : NO_SNAPSHOT;
+            }
+            return attr.getComponentValue(snapshot!=NO_SNAPSHOT ? snapshot : null);
+        }
+
+        /**
+         * Read an attribute, from its cached or refreshed value if any.
+         */
+        private Object read(ClassDescriptor.AttributeDescriptor attr, Object obj) throws AttributeNotFoundException, MBeanException, ReflectionException {
+            if(attr.isStatistic()) {
+                return attr.getStatisticValue(operationTimers[attr.timerSlot]);
+            }
+            if(attr.refreshSlot>=0) {
+                return refreshedValues[attr.refreshSlot].get(attr, obj);
+            }
+            if(attr.cacheSlot>=0) {
+                return cachedValues[attr.cacheSlot].get(attr, obj);
+            }
+            return attr.getValue(obj);
         }
 
         @Override
         public void setAttribute(Attribute attribute) throws AttributeNotFoundException, InvalidAttributeValueException, MBeanException, ReflectionException {
-            descriptor.setAttributeValue(attribute.getName(), object, attribute.getValue());
+            setAttribute(attribute.getName(), attribute.getValue());
         }
 
         public void setAttribute(String name, Object value) throws AttributeNotFoundException, InvalidAttributeValueException, MBeanException, ReflectionException {
-            descriptor.setAttributeValue(name, object, value);
+            TypeStatistics stats = statistics;
+            if(stats==null) {
+                writeAttribute(name, value);
+                return;
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                writeAttribute(name, value);
+                failed = false;
+            } finally {
+                stats.recordWrite(start, failed);
+            }
+        }
+
+        private void writeAttribute(String name, Object value) throws AttributeNotFoundException, InvalidAttributeValueException, MBeanException, ReflectionException {
+            ClassDescriptor.AttributeDescriptor attr = descriptor.getAttribute(name);
+            if(attr==null) {
+                throw new AttributeNotFoundException();
+            }
+            write(attr, target(), value);
+        }
+
+        /**
+         * Write an attribute and drop its cached or refreshed value if any.
+         */
+        private void write(ClassDescriptor.AttributeDescriptor attr, Object obj, Object value) throws AttributeNotFoundException, InvalidAttributeValueException, MBeanException, ReflectionException {
+            attr.setValue(obj, value);
+            if(attr.refreshSlot>=0) {
+                refreshedValues[attr.refreshSlot].invalidate();
+            }
+            if(attr.cacheSlot>=0) {
+                cachedValues[attr.cacheSlot].invalidate();
+            }
         }
 
+        /**
+         * Read all readable attributes, in MBean info order.
+         */
+        public AttributeList getAttributes() {
+            return getAttributes(descriptor.attributeSlotNames);
+        }
+
+        /**
+         * {@inheritDoc}
+         * Attributes which are unknown, not readable or whose read fails are omitted.
+         */
         @Override
         public AttributeList getAttributes(String[] attributes) {
-            return new AttributeList(
-                    Arrays.stream(attributes)
-                        .map(attrName -> {
-                                try {
-                                    return new Attribute(attrName, getAttribute(attrName));
-                                } catch (JMException ex) {
-                                    return null;
-                                }
-                        })
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toList()));
+            TypeStatistics stats = statistics;
+            if(stats==null) {
+                return readAttributes(attributes);
+            }
+            long start = System.nanoTime();
+            AttributeList list = readAttributes(attributes);
+            // Omitted attributes failed to be read
+            stats.recordRead(start, list.size() < attributes.length);
+            return list;
+        }
+
+        private AttributeList readAttributes(String[] attributes) {
+            AttributeList list = new AttributeList(attributes.length);
+            Object obj = getObject();
+            if(obj==null) {
+                expungeStaleEntries();
+                return list;
+            }
+            ClassDescriptor.AttributeDescriptor[] attrs = descriptor.isAllAttributes(attributes) ? descriptor.attributeSlots : null;
+            if(attrs==null) {
+                attrs = new ClassDescriptor.AttributeDescriptor[attributes.length];
+                for (int i = 0; i < attributes.length; i++) {
+                    attrs[i] = descriptor.getAttribute(attributes[i]);
+                }
+            }
+            SnapshotLock lock = descriptor.snapshotLock;
+            if(lock==null) {
+                Object[] snapshots = newSnapshots();
+                for (ClassDescriptor.AttributeDescriptor attr : attrs) {
+                    if(attr!=null && (attr.reader!=null || attr.isStatistic())) {
+                        try {
+                            list.add(new Attribute(attr.getName(), read(attr, obj, snapshots)));
+                        } catch (JMException ex) {
+                            // Failed read, omitted
+                        }
+                    }
+                }
+                return list;
+            }
+
+            // Read values consistently, then build the list once
+            Object[] values = new Object[attrs.length];
+            ClassDescriptor.AttributeDescriptor[] readable = attrs;
+            try {
+                lock.read(obj, () -> readValues(readable, obj, values));
+            } catch (SnapshotLock.ReadTimeoutException ex) {
+                logger.warn("Attributes of {} cannot be read consistently, a writer may be stuck", this);
+                return list;
+            } catch (MBeanException | RuntimeException ex) {
+                logger.debug("Error while reading attributes of {}", this, ex);
+                return list;
+            }
+            for (int i = 0; i < attrs.length; i++) {
+                if(values[i]!=FAILED_READ) {
+                    list.add(new Attribute(attrs[i].getName(), values[i]));
+                }
+            }
+            return list;
+        }
+
+        /**
+         * Read the values of the attributes, {@link #FAILED_READ} for the ones which cannot be read.
+         */
+        private void readValues(ClassDescriptor.AttributeDescriptor[] attrs, Object obj, Object[] values) {
+            Object[] snapshots = newSnapshots();
+            for (int i = 0; i < attrs.length; i++) {
+                ClassDescriptor.AttributeDescriptor attr = attrs[i];
+                values[i] = FAILED_READ;
+                if(attr!=null && (attr.reader!=null || attr.isStatistic())) {
+                    try {
+                        values[i] = read(attr, obj, snapshots);
+                    } catch (JMException | RuntimeException ex) {
+                        // Failed read, or inconsistent state detected by the next validation
+                    }
+                }
+            }
         }
 
+        /**
+         * {@inheritDoc}
+         * Attributes which are unknown, not writable, set to an invalid value or whose write fails are omitted.
+         */
         @Override
         public AttributeList setAttributes(AttributeList attributes) {
-            return new AttributeList(
-                    attributes.asList().stream()
-                            .map(attribute -> {
-                                try {
-                                    setAttribute(attribute);
-                                    return attribute;
-                                } catch (JMException ex) {
-                                    return null;
-                                }
-                            })
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toList()));
+            TypeStatistics stats = statistics;
+            if(stats==null) {
+                return writeAttributes(attributes);
+            }
+            long start = System.nanoTime();
+            AttributeList list = writeAttributes(attributes);
+            // Omitted attributes failed to be written
+            stats.recordWrite(start, list.size() < attributes.size());
+            return list;
+        }
+
+        private AttributeList writeAttributes(AttributeList attributes) {
+            AttributeList list = new AttributeList(attributes.size());
+            Object obj = getObject();
+            if(obj==null) {
+                expungeStaleEntries();
+                return list;
+            }
+            for (Attribute attribute : attributes.asList()) {
+                ClassDescriptor.AttributeDescriptor attr = descriptor.getAttribute(attribute.getName());
+                if(attr==null || attr.writer==null || (attribute.getValue()==null && attr.getType().isPrimitive())) {
+                    continue;
+                }
+                try {
+                    write(attr, obj, attribute.getValue());
+                    list.add(attribute);
+                } catch (JMException ex) {
+                    // Failed write, omitted
+                }
+            }
+            return list;
         }
 
         @Override
         public Object invoke(String actionName, Object[] params, String[] signature) throws MBeanException, ReflectionException {
-            // TODO Use signature to find suitable method to invoke
-            return descriptor.invoke(actionName, object, params);
+            TypeStatistics stats = statistics;
+            if(stats==null) {
+                return invokeOperation(actionName, params, signature);
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invokeOperation(actionName, params, signature);
+                failed = false;
+                return result;
+            } finally {
+                stats.recordInvoke(start, failed);
+            }
+        }
+
+        private Object invokeOperation(String actionName, Object[] params, String[] signature) throws MBeanException, ReflectionException {
+            ClassDescriptor.OperationDescriptor op = descriptor.getOperation(actionName, params, signature);
+            if(op.timerSlot>=0) {
+                return invokeTimed(op, params);
+            }
+            return invoke(op, params);
+        }
+
+        private Object invoke(ClassDescriptor.OperationDescriptor op, Object[] params) throws MBeanException, ReflectionException {
+            if(op.cacheSlot>=0) {
+                return operationCaches[op.cacheSlot].invoke(op, target(), params);
+            }
+            return op.invoke(target(), params);
+        }
+
+        private Object invokeTimed(ClassDescriptor.OperationDescriptor op, Object[] params) throws MBeanException, ReflectionException {
+            OperationTimer timer = operationTimers[op.timerSlot];
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invoke(op, params);
+                failed = false;
+                return result;
+            } finally {
+                timer.record(start, failed);
+            }
         }
 
         @Override
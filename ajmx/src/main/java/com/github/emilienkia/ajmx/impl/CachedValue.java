@@ -0,0 +1,62 @@
+package com.github.emilienkia.ajmx.impl;
+
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanException;
+import javax.management.ReflectionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last value of a cached attribute of an AMBean instance.
+ * <p>
+ * Concurrent reads of an expired value are coalesced: only one thread reads the attribute
+ * while others wait for its value. Failed reads are not cached.
+ * A value loaded while the cache is invalidated is returned to its reader but not kept.
+ */
+final class CachedValue {
+
+    private static final class Entry {
+        final Object value;
+        /** Expiration time of the value, in {@link System#nanoTime()} units. */
+        final long expiry;
+        /** Invalidation generation the value was loaded at. */
+        final long generation;
+
+        Entry(Object value, long expiry, long generation) {
+            this.value = value;
+            this.expiry = expiry;
+            this.generation = generation;
+        }
+    }
+
+    /** Incremented by each invalidation, entries of previous generations are not valid anymore. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Entry entry;
+
+    Object get(AjmxAdaptorImpl.ClassDescriptor.AttributeDescriptor attr, Object obj) throws MBeanException, ReflectionException, AttributeNotFoundException {
+        Entry current = entry;
+        if(isValid(current, System.nanoTime())) {
+            return current.value;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            current = entry;
+            if(isValid(current, now)) {
+                // Loaded by another thread meanwhile
+                return current.value;
+            }
+            long loadGeneration = generation.get();
+            Object loadedValue = attr.getValue(obj);
+            entry = new Entry(loadedValue, now + attr.cacheTtl, loadGeneration);
+            return loadedValue;
+        }
+    }
+
+    private boolean isValid(Entry entry, long now) {
+        return entry!=null && entry.generation==generation.get() && now - entry.expiry < 0;
+    }
+
+    void invalidate() {
+        generation.incrementAndGet();
+    }
+}
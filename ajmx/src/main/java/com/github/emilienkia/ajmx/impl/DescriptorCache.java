@@ -0,0 +1,80 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JVM-wide cache of AMBean class descriptors, shared by all adaptors.
+ * <p>
+ * Descriptors are attached to their class with a {@link ClassValue}, so each class is introspected once
+ * whatever the number of adaptors, concurrently introspected classes are safely published,
+ * and cached descriptors do not prevent their classes (nor their classloaders) from being unloaded.
+ * Classes which are not AMBeans are cached too, so checking them again is a simple lookup.
+ */
+final class DescriptorCache {
+
+    private static final ClassValue<Optional<AjmxAdaptorImpl.ClassDescriptor>> DESCRIPTORS = new Descriptors();
+
+    private static final LongAdder lookups = new LongAdder();
+
+    private static final LongAdder misses = new LongAdder();
+
+    private static final LongAdder described = new LongAdder();
+
+    private DescriptorCache() {
+        // Prevent construct helper class
+    }
+
+    /**
+     * Get the descriptor of an AMBean class.
+     * @param clazz Class to describe.
+     * @return Class descriptor, null if the class is not an AMBean.
+     */
+    static AjmxAdaptorImpl.ClassDescriptor get(Class<?> clazz) {
+        if(clazz==null) {
+            return null;
+        }
+        lookups.increment();
+        return DESCRIPTORS.get(clazz).orElse(null);
+    }
+
+    /**
+     * Number of lookups answered from the cache.
+     */
+    static long hits() {
+        // Read misses first, so concurrent lookups cannot make hits negative.
+        long missCount = misses.sum();
+        return lookups.sum() - missCount;
+    }
+
+    /**
+     * Number of lookups which required to introspect the class.
+     */
+    static long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Number of AMBean descriptors created, classes unloaded since not being deducted.
+     */
+    static long size() {
+        return described.sum();
+    }
+
+    private static final class Descriptors extends ClassValue<Optional<AjmxAdaptorImpl.ClassDescriptor>> {
+
+        @Override
+        protected Optional<AjmxAdaptorImpl.ClassDescriptor> computeValue(Class<?> type) {
+            misses.increment();
+            MBean annot = type.getAnnotation(MBean.class);
+            if(annot==null) {
+                return Optional.empty();
+            }
+            AjmxAdaptorImpl.ClassDescriptor descriptor = new AjmxAdaptorImpl.ClassDescriptor(type, annot);
+            described.increment();
+            return Optional.of(descriptor);
+        }
+    }
+}
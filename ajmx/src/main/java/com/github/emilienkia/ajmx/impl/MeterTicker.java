@@ -0,0 +1,53 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.metrics.Meter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticker of the meters of registered AMBeans, see {@link Meter#tick()}.
+ * A single periodic task of the shared scheduler ticks all meters, running while meters are registered.
+ * <p>
+ * The ticker is shared by all adaptors, so a meter registered in several adaptors is ticked once per interval.
+ */
+final class MeterTicker {
+
+    private static final MeterTicker SHARED = new MeterTicker();
+
+    /** Ticked meters, with the number of registrations holding each one, in all adaptors. */
+    final Map<Meter, Integer> meters = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> task = null;
+
+    private MeterTicker() {
+    }
+
+    static MeterTicker shared() {
+        return SHARED;
+    }
+
+    synchronized void add(Meter meter) {
+        meters.merge(meter, 1, Integer::sum);
+        if(task==null) {
+            task = SharedExecutors.scheduler().scheduleAtFixedRate(this::tick,
+                    Meter.TICK_INTERVAL, Meter.TICK_INTERVAL, TimeUnit.SECONDS);
+        }
+    }
+
+    synchronized void remove(Meter meter) {
+        meters.computeIfPresent(meter, (key, count) -> count > 1 ? count - 1 : null);
+        if(meters.isEmpty() && task!=null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    void tick() {
+        for (Meter meter : meters.keySet()) {
+            meter.tick();
+        }
+    }
+}
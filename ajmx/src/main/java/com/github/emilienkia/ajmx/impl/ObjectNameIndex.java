@@ -0,0 +1,199 @@
+package com.github.emilienkia.ajmx.impl;
+
+import javax.management.ObjectName;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Concurrent map of values indexed by object name, by domain and by key property.
+ * <p>
+ * Pattern queries are narrowed to the smallest set of names sharing the pattern domain or one of its
+ * non-wildcard key properties before being filtered with {@link ObjectName#apply(ObjectName)},
+ * so their cost is proportional to the matching family rather than to the whole index.
+ * Patterns with wildcard domain and only wildcard values fall back to a full scan.
+ * <p>
+ * Secondary indexes of a name are updated atomically with its entry, so concurrent updates of the same name
+ * cannot leave stale index entries. Queries are weakly consistent.
+ * @param <V> Type of indexed values.
+ */
+class ObjectNameIndex<V> {
+
+    final ConcurrentMap<ObjectName, V> byName = new ConcurrentHashMap<>();
+
+    final ConcurrentMap<String, Set<ObjectName>> byDomain = new ConcurrentHashMap<>();
+
+    /** Names by key then by value. */
+    final ConcurrentMap<String, ConcurrentMap<String, Set<ObjectName>>> byKey = new ConcurrentHashMap<>();
+
+    public int size() {
+        return byName.size();
+    }
+
+    public V get(ObjectName name) {
+        return byName.get(name);
+    }
+
+    public Collection<V> values() {
+        return byName.values();
+    }
+
+    public V put(ObjectName name, V value) {
+        Object[] previous = new Object[1];
+        byName.compute(name, (n, prev) -> {
+            if(prev==null) {
+                index(n);
+            }
+            previous[0] = prev;
+            return value;
+        });
+        @SuppressWarnings("unchecked")
+        V prev = (V) previous[0];
+        return prev;
+    }
+
+    /**
+     * Associate the value to the name only if the name is not already indexed.
+     * @return The value currently associated to the name, null if the value has been associated.
+     */
+    public V putIfAbsent(ObjectName name, V value) {
+        Object[] previous = new Object[1];
+        byName.compute(name, (n, prev) -> {
+            if(prev==null) {
+                index(n);
+                return value;
+            }
+            previous[0] = prev;
+            return prev;
+        });
+        @SuppressWarnings("unchecked")
+        V prev = (V) previous[0];
+        return prev;
+    }
+
+    public V remove(ObjectName name) {
+        Object[] previous = new Object[1];
+        byName.computeIfPresent(name, (n, prev) -> {
+            unindex(n);
+            previous[0] = prev;
+            return null;
+        });
+        @SuppressWarnings("unchecked")
+        V prev = (V) previous[0];
+        return prev;
+    }
+
+    /**
+     * Remove the name only if it is currently associated to the specified value.
+     */
+    public boolean remove(ObjectName name, V value) {
+        boolean[] removed = new boolean[1];
+        byName.computeIfPresent(name, (n, prev) -> {
+            if(!prev.equals(value)) {
+                return prev;
+            }
+            unindex(n);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    public void clear() {
+        for (ObjectName name : byName.keySet()) {
+            remove(name);
+        }
+    }
+
+    /**
+     * Look for all entries whose name matches the specified pattern (or is equal to the specified name).
+     * @param pattern Name or pattern to look for.
+     * @return Matching entries, the returned map is detached from the index.
+     */
+    public Map<ObjectName, V> find(ObjectName pattern) {
+        Map<ObjectName, V> result = new LinkedHashMap<>();
+        if(!pattern.isPattern()) {
+            V value = byName.get(pattern);
+            if(value!=null) {
+                result.put(pattern, value);
+            }
+            return result;
+        }
+        for (ObjectName name : candidates(pattern)) {
+            if(pattern.apply(name)) {
+                V value = byName.get(name);
+                if(value!=null) {
+                    result.put(name, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Smallest indexed set of names which may match the pattern.
+     */
+    Collection<ObjectName> candidates(ObjectName pattern) {
+        Collection<ObjectName> candidates = null;
+        if(!pattern.isDomainPattern()) {
+            candidates = byDomain.getOrDefault(pattern.getDomain(), Collections.emptySet());
+        }
+        for (Map.Entry<String, String> prop : pattern.getKeyPropertyList().entrySet()) {
+            if(candidates!=null && candidates.isEmpty()) {
+                break;
+            }
+            if(!pattern.isPropertyValuePattern(prop.getKey())) {
+                Set<ObjectName> names = byKey.getOrDefault(prop.getKey(), new ConcurrentHashMap<>())
+                        .getOrDefault(prop.getValue(), Collections.emptySet());
+                if(candidates==null || names.size() < candidates.size()) {
+                    candidates = names;
+                }
+            }
+        }
+        return candidates!=null ? candidates : byName.keySet();
+    }
+
+    private void index(ObjectName name) {
+        index(byDomain, name.getDomain(), name);
+        for (Map.Entry<String, String> prop : name.getKeyPropertyList().entrySet()) {
+            byKey.compute(prop.getKey(), (key, values) -> {
+                if(values==null) {
+                    values = new ConcurrentHashMap<>();
+                }
+                index(values, prop.getValue(), name);
+                return values;
+            });
+        }
+    }
+
+    private void unindex(ObjectName name) {
+        unindex(byDomain, name.getDomain(), name);
+        for (Map.Entry<String, String> prop : name.getKeyPropertyList().entrySet()) {
+            byKey.computeIfPresent(prop.getKey(), (key, values) -> {
+                unindex(values, prop.getValue(), name);
+                return values.isEmpty() ? null : values;
+            });
+        }
+    }
+
+    private static void index(ConcurrentMap<String, Set<ObjectName>> index, String key, ObjectName name) {
+        index.compute(key, (k, names) -> {
+            if(names==null) {
+                names = ConcurrentHashMap.newKeySet();
+            }
+            names.add(name);
+            return names;
+        });
+    }
+
+    private static void unindex(ConcurrentMap<String, Set<ObjectName>> index, String key, ObjectName name) {
+        index.computeIfPresent(key, (k, names) -> {
+            names.remove(name);
+            return names.isEmpty() ? null : names;
+        });
+    }
+}
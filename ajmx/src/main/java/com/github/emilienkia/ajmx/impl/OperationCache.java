@@ -0,0 +1,104 @@
+package com.github.emilienkia.ajmx.impl;
+
+import javax.management.MBeanException;
+import javax.management.ReflectionException;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Results of an informative operation of an AMBean instance, by argument values.
+ * <p>
+ * Results expire after the operation cache duration, and least recently used results are evicted
+ * once the operation cache size is reached. Failed invocations are not cached.
+ */
+final class OperationCache {
+
+    private static final class Arguments {
+        final Object[] values;
+        final int hash;
+
+        Arguments(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.deepHashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Arguments && Arrays.deepEquals(values, ((Arguments) other).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Result {
+        final Object value;
+        /** Expiration time of the result, in {@link System#nanoTime()} units. */
+        final long expiry;
+
+        Result(Object value, long expiry) {
+            this.value = value;
+            this.expiry = expiry;
+        }
+    }
+
+    private final Map<Arguments, Result> results;
+
+    OperationCache(int size) {
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Arguments, Result> eldest) {
+                return size() > size;
+            }
+        };
+    }
+
+    Object invoke(AjmxAdaptorImpl.ClassDescriptor.OperationDescriptor op, Object obj, Object... params) throws MBeanException, ReflectionException {
+        // Copy arguments, so array arguments cannot be modified by the caller once cached
+        Arguments args = new Arguments(params!=null ? (Object[]) copy(params) : new Object[0]);
+        long now = System.nanoTime();
+        synchronized (results) {
+            Result result = results.get(args);
+            if(result!=null && now - result.expiry < 0) {
+                return result.value;
+            }
+        }
+        Object value = op.invoke(obj, params);
+        synchronized (results) {
+            results.put(args, new Result(value, now + op.cacheTtl));
+        }
+        return value;
+    }
+
+    /**
+     * Copy a value if it is an array, nested arrays included. Other values are returned as is.
+     */
+    static Object copy(Object value) {
+        if(value==null || !value.getClass().isArray()) {
+            return value;
+        }
+        int length = Array.getLength(value);
+        Class<?> componentType = value.getClass().getComponentType();
+        Object copy = Array.newInstance(componentType, length);
+        if(componentType.isPrimitive()) {
+            System.arraycopy(value, 0, copy, 0, length);
+        } else {
+            Object[] values = (Object[]) value;
+            Object[] copies = (Object[]) copy;
+            for (int i = 0; i < length; i++) {
+                copies[i] = copy(values[i]);
+            }
+        }
+        return copy;
+    }
+
+    void invalidate() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.metrics.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the invocations of a timed operation of an AMBean,
+ * see {@link com.github.emilienkia.ajmx.annotations.MBeanOperation#timed()}.
+ */
+final class OperationTimer {
+
+    final LongAdder invocations = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    /** Latency of invocations, in nanoseconds. */
+    final Histogram latency = new Histogram();
+
+    void record(long start, boolean failed) {
+        latency.record(System.nanoTime() - start);
+        invocations.increment();
+        if(failed) {
+            errors.increment();
+        }
+    }
+}
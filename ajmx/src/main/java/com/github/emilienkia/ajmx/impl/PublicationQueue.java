@@ -0,0 +1,80 @@
+package com.github.emilienkia.ajmx.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue of deferred publications of AMBeans to the MBean server.
+ * <p>
+ * Publications are kept in request order. Unpublishing an instance whose publication is still pending
+ * cancels both operations, so short-lived AMBeans never reach the MBean server.
+ */
+class PublicationQueue {
+
+    enum Operation {
+        PUBLISH, UNPUBLISH
+    }
+
+    private Map<AjmxAdaptorImpl.Instance, Operation> pending = new LinkedHashMap<>();
+
+    private boolean scheduled = false;
+
+    final LongAdder coalesced = new LongAdder();
+
+    final LongAdder applied = new LongAdder();
+
+    final LongAdder dropped = new LongAdder();
+
+    /**
+     * Queue the publication of an instance.
+     * @return True if a flush of the queue must be scheduled.
+     */
+    synchronized boolean publish(AjmxAdaptorImpl.Instance instance) {
+        pending.put(instance, Operation.PUBLISH);
+        return schedule();
+    }
+
+    /**
+     * Queue the unpublication of an instance, or cancel its pending publication.
+     * @return True if a flush of the queue must be scheduled.
+     */
+    synchronized boolean unpublish(AjmxAdaptorImpl.Instance instance) {
+        if(pending.remove(instance, Operation.PUBLISH)) {
+            coalesced.add(2);
+            return false;
+        }
+        pending.put(instance, Operation.UNPUBLISH);
+        return schedule();
+    }
+
+    private boolean schedule() {
+        if(scheduled) {
+            return false;
+        }
+        scheduled = true;
+        return true;
+    }
+
+    /**
+     * Take all pending operations, in request order.
+     */
+    synchronized Map<AjmxAdaptorImpl.Instance, Operation> drain() {
+        scheduled = false;
+        if(pending.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<AjmxAdaptorImpl.Instance, Operation> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    /**
+     * Drop all pending operations.
+     */
+    synchronized void clear() {
+        dropped.add(pending.size());
+        pending.clear();
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.emilienkia.ajmx.impl;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Registry key comparing registered objects by identity instead of {@link Object#equals(Object)}.
+ * Identity and weak keys referencing the same object are equal, so a weakly stored object can be
+ * looked up with a short-lived identity key.
+ */
+interface ReferenceKey {
+
+    Object get();
+
+    static boolean equals(ReferenceKey key, Object other) {
+        if(key==other) {
+            return true;
+        }
+        if(!(other instanceof ReferenceKey)) {
+            return false;
+        }
+        Object obj = key.get();
+        return obj!=null && obj==((ReferenceKey) other).get();
+    }
+
+    /**
+     * Key strongly referencing its object.
+     */
+    final class IdentityKey implements ReferenceKey {
+        private final Object obj;
+        private final int hash;
+
+        IdentityKey(Object obj) {
+            this.obj = obj;
+            this.hash = System.identityHashCode(obj);
+        }
+
+        @Override
+        public Object get() {
+            return obj;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return ReferenceKey.equals(this, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Key weakly referencing its object, enqueued with its instance when the object is collected.
+     * A cleared key is only equal to itself, so it can still be removed from the registry.
+     */
+    final class WeakKey extends WeakReference<Object> implements ReferenceKey {
+        private final int hash;
+
+        /** Registered instance, cleared when the key is not used by the registry anymore. */
+        volatile AjmxAdaptorImpl.Instance instance;
+
+        WeakKey(Object obj, AjmxAdaptorImpl.Instance instance, ReferenceQueue<Object> queue) {
+            super(obj, queue);
+            this.hash = System.identityHashCode(obj);
+            this.instance = instance;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return ReferenceKey.equals(this, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
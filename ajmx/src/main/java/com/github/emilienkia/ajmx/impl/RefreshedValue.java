@@ -0,0 +1,97 @@
+package com.github.emilienkia.ajmx.impl;
+
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanException;
+import javax.management.ReflectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Last value of an attribute of an AMBean instance, periodically refreshed in background.
+ * <p>
+ * Reads return the last refreshed value without reading the attribute,
+ * only the first read waits for the attribute to be read if it has not been refreshed yet.
+ * A failed refresh keeps the last value, a refresh overlapping an invalidation is ignored.
+ */
+final class RefreshedValue {
+
+    private static final class Entry {
+        final Object value;
+        /** Invalidation generation the value was read at. */
+        final long generation;
+
+        Entry(Object value, long generation) {
+            this.value = value;
+            this.generation = generation;
+        }
+    }
+
+    /** Incremented by each invalidation, entries of previous generations are not valid anymore. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicReference<Entry> entry = new AtomicReference<>();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    Object get(AjmxAdaptorImpl.ClassDescriptor.AttributeDescriptor attr, Object obj) throws MBeanException, ReflectionException, AttributeNotFoundException {
+        Entry current = entry.get();
+        if(isValid(current)) {
+            return current.value;
+        }
+        synchronized (this) {
+            current = entry.get();
+            if(isValid(current)) {
+                return current.value;
+            }
+            long loadGeneration = generation.get();
+            Object loadedValue = attr.getValue(obj);
+            entry.set(new Entry(loadedValue, loadGeneration));
+            return loadedValue;
+        }
+    }
+
+    private boolean isValid(Entry entry) {
+        return entry!=null && entry.generation==generation.get();
+    }
+
+    /**
+     * Current invalidation generation, to be read before reading the attribute to refresh.
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Store a refreshed value.
+     * @param generation Invalidation generation read before reading the attribute,
+     *                   the value is ignored if it has been invalidated since.
+     */
+    void set(Object value, long generation) {
+        Entry refreshed = new Entry(value, generation);
+        Entry current;
+        do {
+            current = entry.get();
+            if(generation!=this.generation.get() || (current!=null && current.generation>generation)) {
+                // Invalidated meanwhile, or a more recent value is already stored
+                return;
+            }
+        } while(!entry.compareAndSet(current, refreshed));
+    }
+
+    /**
+     * Mark the value as being refreshed.
+     * @return False if a refresh is already running.
+     */
+    boolean startRefresh() {
+        return refreshing.compareAndSet(false, true);
+    }
+
+    void endRefresh() {
+        refreshing.set(false);
+    }
+
+    void invalidate() {
+        generation.incrementAndGet();
+    }
+}
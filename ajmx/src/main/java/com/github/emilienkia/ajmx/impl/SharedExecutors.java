@@ -0,0 +1,69 @@
+package com.github.emilienkia.ajmx.impl;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors shared by all adaptors, lazily created.
+ * Threads are daemons so they never prevent the JVM from stopping.
+ */
+final class SharedExecutors {
+
+    private SharedExecutors() {
+        // Prevent construct helper class
+    }
+
+    /**
+     * Default executor of asynchronous registrations.
+     * Runs each task in a virtual thread when the JVM supports them, in a cached pool of daemon threads otherwise.
+     */
+    static ExecutorService async() {
+        return AsyncHolder.EXECUTOR;
+    }
+
+    /**
+     * Scheduler of periodic and deferred tasks.
+     * Runs in a single daemon thread, scheduled tasks shall be short or hand over to another executor.
+     */
+    static ScheduledExecutorService scheduler() {
+        return SchedulerHolder.SCHEDULER;
+    }
+
+    static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class SchedulerHolder {
+        static final ScheduledExecutorService SCHEDULER = create();
+
+        private static ScheduledExecutorService create() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("ajmx-scheduler-"));
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+    private static final class AsyncHolder {
+        static final ExecutorService EXECUTOR = create();
+
+        private static ExecutorService create() {
+            try {
+                // Virtual threads are only available from Java 21
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                return Executors.newCachedThreadPool(daemonThreadFactory("ajmx-async-"));
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.exceptions.AttributeDescriptorException;
+import com.github.emilienkia.ajmx.metrics.SnapshotMetric;
+import com.github.emilienkia.ajmx.spi.AMBeanAdapter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Introspection of fields annotated with {@link com.github.emilienkia.ajmx.annotations.MBeanSnapshot}
+ * and of the components of their snapshot class.
+ */
+final class SnapshotComponents {
+
+    /**
+     * Component of a snapshot class, exposed as an attribute.
+     */
+    static final class Component {
+        final String name;
+        final Class<?> type;
+        final String description;
+        final AMBeanAdapter.Reader reader;
+
+        Component(String name, Class<?> type, String description, AMBeanAdapter.Reader reader) {
+            this.name = name;
+            this.type = type;
+            this.description = description;
+            this.reader = reader;
+        }
+    }
+
+    private SnapshotComponents() {
+        // Prevent construct helper class
+    }
+
+    /**
+     * Reader of the current snapshot held by the field.
+     */
+    static AMBeanAdapter.Reader holder(Field field) {
+        if(field.getType()!=AtomicReference.class && !Modifier.isVolatile(field.getModifiers())) {
+            throw new AttributeDescriptorException("Snapshot field '" + field.getName() + "' must be volatile or an AtomicReference");
+        }
+        field.setAccessible(true);
+        AMBeanAdapter.Reader reader = Accessors.fieldReader(field);
+        if(field.getType()==AtomicReference.class) {
+            return obj -> {
+                AtomicReference<?> ref = (AtomicReference<?>) reader.get(obj);
+                return ref!=null ? ref.get() : null;
+            };
+        }
+        return reader;
+    }
+
+    /**
+     * Class of the snapshots held by the field.
+     */
+    static Class<?> snapshotType(Field field) {
+        if(field.getType()!=AtomicReference.class) {
+            return field.getType();
+        }
+        Type type = field.getGenericType();
+        if(type instanceof ParameterizedType) {
+            Type arg = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if(arg instanceof Class) {
+                return (Class<?>) arg;
+            }
+            if(arg instanceof ParameterizedType) {
+                return (Class<?>) ((ParameterizedType) arg).getRawType();
+            }
+        }
+        throw new AttributeDescriptorException("Snapshot type of field '" + field.getName() + "' cannot be resolved");
+    }
+
+    /**
+     * Class of the snapshots taken by a {@link SnapshotMetric} class.
+     */
+    static Class<?> metricSnapshotType(Class<?> metricClass) {
+        for (Class<?> clazz = metricClass; clazz!=null; clazz = clazz.getSuperclass()) {
+            for (Type type : clazz.getGenericInterfaces()) {
+                if(type instanceof ParameterizedType && ((ParameterizedType) type).getRawType()==SnapshotMetric.class) {
+                    Type arg = ((ParameterizedType) type).getActualTypeArguments()[0];
+                    if(arg instanceof Class) {
+                        return (Class<?>) arg;
+                    }
+                    if(arg instanceof ParameterizedType) {
+                        return (Class<?>) ((ParameterizedType) arg).getRawType();
+                    }
+                }
+            }
+        }
+        throw new AttributeDescriptorException("Snapshot type of metric '" + metricClass.getName() + "' cannot be resolved");
+    }
+
+    /**
+     * Components of a snapshot class: its annotated members if any, else its record components, else its final fields.
+     */
+    static List<Component> of(Class<?> type) {
+        List<Component> components = annotated(type);
+        if(components.isEmpty()) {
+            components = recordComponents(type);
+        }
+        if(components.isEmpty()) {
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if(Modifier.isFinal(modifiers) && !Modifier.isStatic(modifiers) && !field.isSynthetic()) {
+                    field.setAccessible(true);
+                    components.add(new Component(field.getName(), field.getType(), null, Accessors.fieldReader(field)));
+                }
+            }
+        }
+        if(components.isEmpty()) {
+            throw new AttributeDescriptorException("Snapshot class '" + type.getName() + "' has no component");
+        }
+        return components;
+    }
+
+    private static List<Component> annotated(Class<?> type) {
+        List<Component> components = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            MBeanAttribute attr = field.getAnnotation(MBeanAttribute.class);
+            if(attr!=null) {
+                field.setAccessible(true);
+                components.add(new Component(attr.name().isEmpty() ? field.getName() : attr.name(), field.getType(),
+                        attr.description().isEmpty() ? null : attr.description(), Accessors.fieldReader(field)));
+            }
+        }
+        for (Method method : type.getDeclaredMethods()) {
+            MBeanAttribute attr = method.getAnnotation(MBeanAttribute.class);
+            if(attr!=null) {
+                if(method.getParameterCount()!=0 || method.getReturnType()==void.class) {
+                    throw new AttributeDescriptorException("Snapshot method '" + method.getName() + "' is not a getter.");
+                }
+                method.setAccessible(true);
+                String name = attr.name().isEmpty() ? AjmxAdaptorImpl.getterAttributeName(method.getName(), method.getReturnType()) : attr.name();
+                components.add(new Component(name, method.getReturnType(),
+                        attr.description().isEmpty() ? null : attr.description(), Accessors.methodReader(method)));
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Record components, looked up reflectively as records are not available on all supported JVMs.
+     */
+    private static List<Component> recordComponents(Class<?> type) {
+        List<Component> components = new ArrayList<>();
+        try {
+            Object[] recordComponents = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+            if(recordComponents!=null) {
+                for (Object component : recordComponents) {
+                    String name = (String) component.getClass().getMethod("getName").invoke(component);
+                    Method accessor = (Method) component.getClass().getMethod("getAccessor").invoke(component);
+                    accessor.setAccessible(true);
+                    components.add(new Component(name, accessor.getReturnType(), null, Accessors.methodReader(accessor)));
+                }
+            }
+        } catch (ReflectiveOperationException ex) {
+            // Records not supported by the JVM
+        }
+        return components;
+    }
+}
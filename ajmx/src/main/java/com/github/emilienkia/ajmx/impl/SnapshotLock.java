@@ -0,0 +1,151 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.exceptions.AttributeDescriptorException;
+import com.github.emilienkia.ajmx.spi.AMBeanAdapter;
+
+import javax.management.MBeanException;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Lock declared by an AMBean to read its attributes consistently, see {@link com.github.emilienkia.ajmx.annotations.MBean#snapshotLock()}.
+ * <p>
+ * Reads are optimistic: attributes are read without blocking writers, then read again if a write happened meanwhile.
+ */
+abstract class SnapshotLock {
+
+    /** Optimistic attempts before falling back to a read lock, for stamped locks. */
+    static final int OPTIMISTIC_ATTEMPTS = 3;
+
+    /** Spinning attempts before yielding between attempts, for sequence numbers. */
+    static final int SEQUENCE_SPINS = 100;
+
+    /** Duration after which a consistent read is given up, for sequence numbers. */
+    static final long SEQUENCE_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    final AMBeanAdapter.Reader reader;
+
+    SnapshotLock(AMBeanAdapter.Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Thrown when attributes cannot be read consistently in time, as writes keep happening.
+     */
+    static final class ReadTimeoutException extends IllegalStateException {
+        ReadTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Run a read of the object attributes consistently, the read may be run several times.
+     * @throws MBeanException If the lock cannot be read from the object.
+     * @throws ReadTimeoutException If no consistent read succeeded in time.
+     */
+    abstract void read(Object obj, Runnable read) throws MBeanException;
+
+    /**
+     * Read the lock field of the object.
+     */
+    Object lock(Object obj) throws MBeanException {
+        try {
+            return reader.get(obj);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new MBeanException(Accessors.asException(ex));
+        }
+    }
+
+    static SnapshotLock of(Class<?> clazz, String fieldName) {
+        Field field;
+        try {
+            field = clazz.getDeclaredField(fieldName);
+        } catch (NoSuchFieldException ex) {
+            throw new AttributeDescriptorException("Snapshot lock field '" + fieldName + "' not found", ex);
+        }
+        field.setAccessible(true);
+        if(field.getType()==StampedLock.class) {
+            return new Stamped(Accessors.fieldReader(field));
+        } else if(field.getType()==AtomicLong.class
+                || (field.getType()==long.class && Modifier.isVolatile(field.getModifiers()))) {
+            return new Sequence(Accessors.fieldReader(field));
+        }
+        throw new AttributeDescriptorException("Snapshot lock field '" + fieldName + "' must be a StampedLock, an AtomicLong or a volatile long");
+    }
+
+    /**
+     * Optimistic read of a {@link StampedLock}, falling back to a read lock when writes keep happening.
+     */
+    static final class Stamped extends SnapshotLock {
+
+        Stamped(AMBeanAdapter.Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        void read(Object obj, Runnable read) throws MBeanException {
+            StampedLock lock = (StampedLock) lock(obj);
+            for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+                long stamp = lock.tryOptimisticRead();
+                if(stamp!=0) {
+                    read.run();
+                    if(lock.validate(stamp)) {
+                        return;
+                    }
+                }
+            }
+            long stamp = lock.readLock();
+            try {
+                read.run();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Sequence lock: writers increment the sequence number before and after writing, so it is odd while writing.
+     * As writers are never blocked, the read fails if no consistent read succeeded after {@link #SEQUENCE_TIMEOUT}.
+     */
+    static final class Sequence extends SnapshotLock {
+
+        Sequence(AMBeanAdapter.Reader reader) {
+            super(reader);
+        }
+
+        long sequence(Object obj) throws MBeanException {
+            return ((Number) lock(obj)).longValue();
+        }
+
+        @Override
+        void read(Object obj, Runnable read) throws MBeanException {
+            long deadline = 0;
+            for (int attempt = 0; ; attempt++) {
+                long before = sequence(obj);
+                if((before & 1)==0) {
+                    read.run();
+                    // Attribute reads must not be reordered after the sequence check
+                    VarHandle.acquireFence();
+                    if(sequence(obj)==before) {
+                        return;
+                    }
+                }
+                if(attempt < SEQUENCE_SPINS) {
+                    Thread.onSpinWait();
+                } else if(deadline==0) {
+                    deadline = System.nanoTime() + SEQUENCE_TIMEOUT;
+                } else if(System.nanoTime() - deadline > 0) {
+                    throw new ReadTimeoutException("No consistent read of attributes, writes keep happening");
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.metrics.Counter;
+import com.github.emilienkia.ajmx.metrics.Histogram;
+
+/**
+ * Statistics of the JMX accesses to the AMBeans of a class, registered by an adaptor monitoring itself.
+ * Latencies are in nanoseconds.
+ */
+@MBean(domain = AdaptorStatistics.DOMAIN, description = "Accesses to the AMBeans of a class")
+public final class TypeStatistics {
+
+    @MBeanAttribute(description = "Number of getAttribute and getAttributes calls")
+    final Counter attributeReads = new Counter();
+
+    @MBeanAttribute(description = "Number of setAttribute and setAttributes calls")
+    final Counter attributeWrites = new Counter();
+
+    @MBeanAttribute(description = "Number of operation invocations")
+    final Counter invocations = new Counter();
+
+    @MBeanAttribute(description = "Number of attribute reads, writes and invocations which failed")
+    final Counter errors = new Counter();
+
+    @MBeanAttribute(description = "Latency of attribute reads")
+    final Histogram readLatency = new Histogram();
+
+    @MBeanAttribute(description = "Latency of attribute writes")
+    final Histogram writeLatency = new Histogram();
+
+    @MBeanAttribute(description = "Latency of operation invocations")
+    final Histogram invokeLatency = new Histogram();
+
+    void recordRead(long start, boolean failed) {
+        readLatency.record(System.nanoTime() - start);
+        attributeReads.increment();
+        if(failed) {
+            errors.increment();
+        }
+    }
+
+    void recordWrite(long start, boolean failed) {
+        writeLatency.record(System.nanoTime() - start);
+        attributeWrites.increment();
+        if(failed) {
+            errors.increment();
+        }
+    }
+
+    void recordInvoke(long start, boolean failed) {
+        invokeLatency.record(System.nanoTime() - start);
+        invocations.increment();
+        if(failed) {
+            errors.increment();
+        }
+    }
+}
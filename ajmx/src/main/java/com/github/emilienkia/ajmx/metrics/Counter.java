@@ -0,0 +1,45 @@
+package com.github.emilienkia.ajmx.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter incremented concurrently from many threads without contention.
+ * <p>
+ * Increments are spread over padded cells, one per contending thread, which are only summed when the counter is read.
+ */
+public final class Counter implements LongMetric {
+
+    private final LongAdder adder = new LongAdder();
+
+    public void increment() {
+        adder.increment();
+    }
+
+    public void add(long delta) {
+        adder.add(delta);
+    }
+
+    /**
+     * Reset the counter to zero. Concurrent increments may be lost.
+     */
+    public void reset() {
+        adder.reset();
+    }
+
+    /**
+     * Read the counter and reset it to zero. Concurrent increments may be lost.
+     */
+    public long sumThenReset() {
+        return adder.sumThenReset();
+    }
+
+    @Override
+    public long longValue() {
+        return adder.sum();
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(longValue());
+    }
+}
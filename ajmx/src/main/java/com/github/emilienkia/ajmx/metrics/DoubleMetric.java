@@ -0,0 +1,10 @@
+package com.github.emilienkia.ajmx.metrics;
+
+/**
+ * Metric exposed as a {@code double} attribute when declared as an {@link com.github.emilienkia.ajmx.annotations.MBeanAttribute}.
+ * The value is only computed when the attribute is read.
+ */
+public interface DoubleMetric {
+
+    double doubleValue();
+}
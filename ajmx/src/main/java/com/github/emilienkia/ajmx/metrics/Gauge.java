@@ -0,0 +1,31 @@
+package com.github.emilienkia.ajmx.metrics;
+
+/**
+ * Gauge holding the last value set.
+ */
+public final class Gauge implements DoubleMetric {
+
+    private volatile double value;
+
+    public Gauge() {
+        this(0.0);
+    }
+
+    public Gauge(double value) {
+        this.value = value;
+    }
+
+    public void set(double value) {
+        this.value = value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,265 @@
+package com.github.emilienkia.ajmx.metrics;
+
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative values, like latencies, recorded concurrently from many threads without locking.
+ * <p>
+ * Values are counted in log-linear buckets: each power of two range is split in {@value #SUB_BUCKETS} buckets,
+ * so percentiles are precise to about 3%. Values above 2<sup>{@value #MAX_EXPONENT}</sup> are counted in the last bucket.
+ * Buckets are striped by recording thread, stripes and their groups of {@value #SUB_BUCKETS} buckets being allocated
+ * on first use, so a histogram only holds the buckets of the ranges of values actually recorded.
+ * <p>
+ * Taking a snapshot resets the histogram, so snapshots describe the values recorded since the previous one.
+ * Snapshots taken shortly after the previous one return it, so all attributes read by a same scrape
+ * describe the same interval.
+ * Snapshots are not atomic: the count of a value recorded while a snapshot is taken may fall in one interval
+ * and its sum, min and max in the next one.
+ */
+public final class Histogram implements SnapshotMetric<Histogram.Snapshot> {
+
+    static final int SUB_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int MAX_EXPONENT = 47;
+    static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+    static final int GROUPS = BUCKETS / SUB_BUCKETS;
+
+    static final int STRIPES = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1), 16);
+
+    /** Default duration during which a snapshot is reused, in milliseconds. */
+    public static final long DEFAULT_SNAPSHOT_REUSE = 1000;
+
+    private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    private final long snapshotReuse;
+
+    private Snapshot last = null;
+    private long lastTime = 0;
+
+    public Histogram() {
+        this(DEFAULT_SNAPSHOT_REUSE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param snapshotReuse Duration during which a snapshot is returned again instead of taking a new one.
+     */
+    public Histogram(long snapshotReuse, TimeUnit unit) {
+        this.snapshotReuse = unit.toNanos(snapshotReuse);
+    }
+
+    /**
+     * Record a value, negative values being recorded as 0.
+     */
+    public void record(long value) {
+        if(value<0) {
+            value = 0;
+        }
+        stripe().increment(index(value));
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    private Stripe stripe() {
+        int idx = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        Stripe stripe = stripes.get(idx);
+        if(stripe==null) {
+            stripes.compareAndSet(idx, null, new Stripe());
+            stripe = stripes.get(idx);
+        }
+        return stripe;
+    }
+
+    /**
+     * Bucket counts of a stripe, by groups of {@value #SUB_BUCKETS} buckets covering a power of two range.
+     */
+    private static final class Stripe {
+        final AtomicReferenceArray<AtomicLongArray> groups = new AtomicReferenceArray<>(GROUPS);
+
+        void increment(int index) {
+            int idx = index >>> SUB_BITS;
+            AtomicLongArray group = groups.get(idx);
+            if(group==null) {
+                groups.compareAndSet(idx, null, new AtomicLongArray(SUB_BUCKETS));
+                group = groups.get(idx);
+            }
+            group.getAndIncrement(index & (SUB_BUCKETS - 1));
+        }
+
+        /**
+         * Add the bucket counts to the specified ones and reset them.
+         */
+        void drainTo(long[] counts) {
+            for (int g = 0; g < GROUPS; g++) {
+                AtomicLongArray group = groups.get(g);
+                if(group!=null) {
+                    for (int i = 0; i < SUB_BUCKETS; i++) {
+                        if(group.get(i)!=0) {
+                            counts[(g << SUB_BITS) + i] += group.getAndSet(i, 0);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static int index(long value) {
+        if(value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if(exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Lowest value counted in a bucket.
+     */
+    static long lowerBound(int index) {
+        if(index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << shift;
+    }
+
+    /**
+     * Highest value counted in a bucket.
+     */
+    static long upperBound(int index) {
+        return index==BUCKETS - 1 ? Long.MAX_VALUE : lowerBound(index + 1) - 1;
+    }
+
+    /**
+     * Take a snapshot of the values recorded since the previous snapshot, and reset the histogram.
+     * A snapshot taken shortly after the previous one returns it.
+     */
+    @Override
+    public synchronized Snapshot snapshot() {
+        long now = System.nanoTime();
+        if(last!=null && now - lastTime < snapshotReuse) {
+            return last;
+        }
+        long[] counts = new long[BUCKETS];
+        for (int s = 0; s < STRIPES; s++) {
+            Stripe stripe = stripes.get(s);
+            if(stripe!=null) {
+                stripe.drainTo(counts);
+            }
+        }
+        last = new Snapshot(counts, sum.sumThenReset(), min.getThenReset(), max.getThenReset());
+        lastTime = now;
+        return last;
+    }
+
+    /**
+     * Immutable distribution of the values recorded during an interval.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        Snapshot(long[] counts, long sum, long min, long max) {
+            this.counts = counts;
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+            this.sum = sum;
+            if(total > 0 && min > max) {
+                // Values counted but not accumulated yet when the snapshot was taken, bounded by their buckets
+                min = lowerBound(firstBucket(counts, 0, 1));
+                max = upperBound(firstBucket(counts, counts.length - 1, -1));
+            }
+            this.min = total > 0 ? min : 0;
+            this.max = total > 0 ? max : 0;
+        }
+
+        private static int firstBucket(long[] counts, int from, int step) {
+            int i = from;
+            while (counts[i]==0) {
+                i += step;
+            }
+            return i;
+        }
+
+        @MBeanAttribute(description = "Number of recorded values")
+        public long getCount() {
+            return count;
+        }
+
+        @MBeanAttribute(description = "Lowest recorded value")
+        public long getMin() {
+            return min;
+        }
+
+        @MBeanAttribute(description = "Highest recorded value")
+        public long getMax() {
+            return max;
+        }
+
+        @MBeanAttribute(description = "Mean of recorded values")
+        public double getMean() {
+            return count > 0 ? (double) sum / count : 0.0;
+        }
+
+        @MBeanAttribute(description = "Median of recorded values")
+        public long getP50() {
+            return percentile(0.5);
+        }
+
+        @MBeanAttribute(description = "90th percentile of recorded values")
+        public long getP90() {
+            return percentile(0.9);
+        }
+
+        @MBeanAttribute(description = "99th percentile of recorded values")
+        public long getP99() {
+            return percentile(0.99);
+        }
+
+        @MBeanAttribute(description = "99.9th percentile of recorded values")
+        public long getP999() {
+            return percentile(0.999);
+        }
+
+        /**
+         * Value below which the specified fraction of recorded values fall, 0 if no value has been recorded.
+         * @param quantile Fraction, between 0 and 1.
+         */
+        public long percentile(double quantile) {
+            if(count==0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long cumulated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulated += counts[i];
+                if(cumulated >= rank) {
+                    // Middle of the bucket, within recorded bounds
+                    long lower = lowerBound(i);
+                    long value = lower + (Math.min(upperBound(i), max) - lower) / 2;
+                    return Math.max(min, Math.min(max, value));
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.emilienkia.ajmx.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Gauge keeping the highest value recorded, concurrently from many threads without contention.
+ * <p>
+ * Records are spread over padded cells, one per contending thread, which are only combined when the gauge is read.
+ * The gauge reads 0 until a value is recorded, as after a reset.
+ */
+public final class MaxGauge implements LongMetric {
+
+    private final LongAccumulator accumulator = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    public void record(long value) {
+        accumulator.accumulate(value);
+    }
+
+    /**
+     * Forget recorded values. Concurrent records may be lost.
+     */
+    public void reset() {
+        accumulator.reset();
+    }
+
+    /**
+     * Read the gauge and forget recorded values. Concurrent records may be lost.
+     */
+    public long getThenReset() {
+        return valueOf(accumulator.getThenReset());
+    }
+
+    @Override
+    public long longValue() {
+        return valueOf(accumulator.get());
+    }
+
+    /**
+     * Map the accumulator identity, read when nothing is recorded, to 0.
+     */
+    private static long valueOf(long value) {
+        return value==Long.MIN_VALUE ? 0 : value;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(longValue());
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.emilienkia.ajmx.metrics;
+
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Meter of the rate of events, like requests, marked from many threads without contention.
+ * <p>
+ * Exposes the count of events, their mean rate and their exponentially weighted moving average rates over
+ * 1, 5 and 15 minutes, in events per second.
+ * Moving averages are updated every {@value #TICK_INTERVAL} seconds while the meter is registered,
+ * from a single background thread shared by all meters and adaptors: a meter registered in several adaptors
+ * is ticked once per interval.
+ */
+public final class Meter implements SnapshotMetric<Meter.Snapshot> {
+
+    /** Interval between updates of moving averages, in seconds. */
+    public static final int TICK_INTERVAL = 5;
+
+    private static final double M1_ALPHA = alpha(1);
+    private static final double M5_ALPHA = alpha(5);
+    private static final double M15_ALPHA = alpha(15);
+
+    private static double alpha(int minutes) {
+        return 1 - Math.exp(-TICK_INTERVAL / 60.0 / minutes);
+    }
+
+    private final LongAdder uncounted = new LongAdder();
+    private final long startTime = System.nanoTime();
+
+    private volatile long counted = 0;
+    private volatile boolean initialized = false;
+    private volatile double m1Rate = 0;
+    private volatile double m5Rate = 0;
+    private volatile double m15Rate = 0;
+
+    /**
+     * Mark the occurrence of an event.
+     */
+    public void mark() {
+        uncounted.increment();
+    }
+
+    /**
+     * Mark the occurrence of several events.
+     */
+    public void mark(long count) {
+        uncounted.add(count);
+    }
+
+    /**
+     * Count of events marked since the meter creation.
+     */
+    public long getCount() {
+        return counted + uncounted.sum();
+    }
+
+    /**
+     * Update moving averages with the events marked since the previous tick.
+     * Called every {@value #TICK_INTERVAL} seconds by the adaptor while the meter is registered.
+     */
+    public synchronized void tick() {
+        long count = uncounted.sumThenReset();
+        counted += count;
+        double rate = (double) count / TICK_INTERVAL;
+        if(initialized) {
+            m1Rate += M1_ALPHA * (rate - m1Rate);
+            m5Rate += M5_ALPHA * (rate - m5Rate);
+            m15Rate += M15_ALPHA * (rate - m15Rate);
+        } else {
+            m1Rate = rate;
+            m5Rate = rate;
+            m15Rate = rate;
+            initialized = true;
+        }
+    }
+
+    @Override
+    public Snapshot snapshot() {
+        long count = getCount();
+        double elapsed = (double) (System.nanoTime() - startTime) / TimeUnit.SECONDS.toNanos(1);
+        return new Snapshot(count, elapsed > 0 ? count / elapsed : 0.0, m1Rate, m5Rate, m15Rate);
+    }
+
+    /**
+     * Immutable count and rates of a meter.
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final double meanRate;
+        private final double oneMinuteRate;
+        private final double fiveMinuteRate;
+        private final double fifteenMinuteRate;
+
+        Snapshot(long count, double meanRate, double oneMinuteRate, double fiveMinuteRate, double fifteenMinuteRate) {
+            this.count = count;
+            this.meanRate = meanRate;
+            this.oneMinuteRate = oneMinuteRate;
+            this.fiveMinuteRate = fiveMinuteRate;
+            this.fifteenMinuteRate = fifteenMinuteRate;
+        }
+
+        @MBeanAttribute(description = "Number of events")
+        public long getCount() {
+            return count;
+        }
+
+        @MBeanAttribute(description = "Mean rate of events since creation, per second")
+        public double getMeanRate() {
+            return meanRate;
+        }
+
+        @MBeanAttribute(description = "Moving average rate of events over one minute, per second")
+        public double getOneMinuteRate() {
+            return oneMinuteRate;
+        }
+
+        @MBeanAttribute(description = "Moving average rate of events over five minutes, per second")
+        public double getFiveMinuteRate() {
+            return fiveMinuteRate;
+        }
+
+        @MBeanAttribute(description = "Moving average rate of events over fifteen minutes, per second")
+        public double getFifteenMinuteRate() {
+            return fifteenMinuteRate;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.github.emilienkia.ajmx.metrics;
+
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Quantile sketch of non-negative values, mergeable with sketches of other AMBeans.
+ * <p>
+ * Values are counted in logarithmic buckets, so quantiles are computed within a relative accuracy
+ * (1% by default), also for quantiles of merged sketches. Values lower than a minimum value are counted as zeros
+ * and values above the last bucket in the last bucket, so memory is bounded. Buckets are allocated by blocks
+ * as values are recorded.
+ * <p>
+ * Unlike {@link Histogram}, a sketch is not reset when read, so sketches of several AMBeans can be merged at any time,
+ * see {@link com.github.emilienkia.ajmx.AjmxAdaptor#mergeSketches(javax.management.ObjectName, String)}.
+ */
+public final class QuantileSketch implements SnapshotMetric<QuantileSketch.Snapshot> {
+
+    static final int BLOCK_SIZE = 128;
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    public static final double DEFAULT_MIN_VALUE = 1.0;
+    public static final int DEFAULT_MAX_BUCKETS = 2048;
+
+    private final double relativeAccuracy;
+    private final double minValue;
+    private final int maxBuckets;
+
+    private final double gamma;
+    private final double multiplier;
+    private final int minIndex;
+
+    private final AtomicReferenceArray<AtomicLongArray> blocks;
+    private final LongAdder zeros = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final DoubleAccumulator min = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+    private final DoubleAccumulator max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MIN_VALUE, DEFAULT_MAX_BUCKETS);
+    }
+
+    /**
+     * @param relativeAccuracy Relative accuracy of quantiles, between 0 and 1 excluded.
+     * @param minValue Lowest value distinguished from zero.
+     * @param maxBuckets Maximum number of buckets, the highest value which can be distinguished depending on it.
+     */
+    public QuantileSketch(double relativeAccuracy, double minValue, int maxBuckets) {
+        if(relativeAccuracy<=0 || relativeAccuracy>=1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        if(minValue<=0 || maxBuckets<1) {
+            throw new IllegalArgumentException("Minimum value and maximum bucket count must be positive");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.minValue = minValue;
+        this.maxBuckets = maxBuckets;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.multiplier = 1 / Math.log(gamma);
+        this.minIndex = (int) Math.ceil(Math.log(minValue) * multiplier);
+        this.blocks = new AtomicReferenceArray<>((maxBuckets + BLOCK_SIZE - 1) / BLOCK_SIZE);
+    }
+
+    /**
+     * Record a value, values lower than the minimum value being counted as zeros.
+     */
+    public void record(double value) {
+        if(value<minValue) {
+            zeros.increment();
+        } else {
+            int bucket = Math.min((int) Math.ceil(Math.log(value) * multiplier) - minIndex, maxBuckets - 1);
+            block(bucket / BLOCK_SIZE).getAndIncrement(bucket % BLOCK_SIZE);
+        }
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    private AtomicLongArray block(int idx) {
+        AtomicLongArray block = blocks.get(idx);
+        if(block==null) {
+            blocks.compareAndSet(idx, null, new AtomicLongArray(BLOCK_SIZE));
+            block = blocks.get(idx);
+        }
+        return block;
+    }
+
+    /**
+     * Clear all recorded values.
+     */
+    public void reset() {
+        for (int b = 0; b < blocks.length(); b++) {
+            blocks.set(b, null);
+        }
+        zeros.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+
+    /**
+     * Take a snapshot of all values recorded so far.
+     */
+    @Override
+    public Snapshot snapshot() {
+        long[] counts = new long[maxBuckets];
+        for (int b = 0; b < blocks.length(); b++) {
+            AtomicLongArray block = blocks.get(b);
+            if(block!=null) {
+                for (int i = 0; i < block.length() && b * BLOCK_SIZE + i < maxBuckets; i++) {
+                    counts[b * BLOCK_SIZE + i] = block.get(i);
+                }
+            }
+        }
+        return new Snapshot(this, counts, zeros.sum(), sum.sum(), min.get(), max.get());
+    }
+
+    /**
+     * Immutable distribution of recorded values, mergeable with snapshots of sketches having the same parameters.
+     */
+    public static final class Snapshot {
+        private final QuantileSketch sketch;
+        private final long[] counts;
+        private final long zeros;
+        private final long count;
+        private final double sum;
+        private final double min;
+        private final double max;
+
+        Snapshot(QuantileSketch sketch, long[] counts, long zeros, double sum, double min, double max) {
+            this.sketch = sketch;
+            this.counts = counts;
+            this.zeros = zeros;
+            long total = zeros;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+            this.sum = sum;
+            this.min = total > 0 ? min : 0;
+            this.max = total > 0 ? max : 0;
+        }
+
+        /**
+         * Merge with the snapshot of another sketch.
+         * @return Snapshot of the values recorded by both sketches.
+         * @throws IllegalArgumentException If sketches do not have the same parameters.
+         */
+        public Snapshot merge(Snapshot other) {
+            if(sketch.relativeAccuracy!=other.sketch.relativeAccuracy || sketch.minValue!=other.sketch.minValue
+                    || sketch.maxBuckets!=other.sketch.maxBuckets) {
+                throw new IllegalArgumentException("Sketches with different parameters cannot be merged");
+            }
+            if(other.count==0) {
+                return this;
+            } else if(count==0) {
+                return other;
+            }
+            long[] merged = counts.clone();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += other.counts[i];
+            }
+            return new Snapshot(sketch, merged, zeros + other.zeros, sum + other.sum,
+                    Math.min(min, other.min), Math.max(max, other.max));
+        }
+
+        @MBeanAttribute(description = "Number of recorded values")
+        public long getCount() {
+            return count;
+        }
+
+        @MBeanAttribute(description = "Lowest recorded value")
+        public double getMin() {
+            return min;
+        }
+
+        @MBeanAttribute(description = "Highest recorded value")
+        public double getMax() {
+            return max;
+        }
+
+        @MBeanAttribute(description = "Mean of recorded values")
+        public double getMean() {
+            return count > 0 ? sum / count : 0.0;
+        }
+
+        @MBeanAttribute(description = "Median of recorded values")
+        public double getP50() {
+            return quantile(0.5);
+        }
+
+        @MBeanAttribute(description = "90th percentile of recorded values")
+        public double getP90() {
+            return quantile(0.9);
+        }
+
+        @MBeanAttribute(description = "99th percentile of recorded values")
+        public double getP99() {
+            return quantile(0.99);
+        }
+
+        @MBeanAttribute(description = "99.9th percentile of recorded values")
+        public double getP999() {
+            return quantile(0.999);
+        }
+
+        /**
+         * Value below which the specified fraction of recorded values fall, 0 if no value has been recorded.
+         * @param quantile Fraction, between 0 and 1.
+         */
+        public double quantile(double quantile) {
+            if(count==0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            if(rank <= zeros) {
+                return min;
+            }
+            long cumulated = zeros;
+            for (int i = 0; i < counts.length; i++) {
+                cumulated += counts[i];
+                if(cumulated >= rank) {
+                    // Value within relative accuracy of all values of the bucket
+                    double value = 2 * Math.pow(sketch.gamma, i + sketch.minIndex) / (sketch.gamma + 1);
+                    return Math.max(min, Math.min(max, value));
+                }
+            }
+            return max;
+        }
+    }
+}
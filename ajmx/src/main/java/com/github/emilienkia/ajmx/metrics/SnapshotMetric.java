@@ -0,0 +1,17 @@
+package com.github.emilienkia.ajmx.metrics;
+
+/**
+ * Metric exposed as several attributes when declared as an {@link com.github.emilienkia.ajmx.annotations.MBeanAttribute}.
+ * <p>
+ * Each component of the snapshot class (see {@link com.github.emilienkia.ajmx.annotations.MBeanSnapshot}) is exposed
+ * as a read-only attribute named after the metric attribute and the component, like {@code latencyP99}.
+ * Attributes read by batch all come from the same snapshot.
+ * @param <S> Class of the snapshots, immutable.
+ */
+public interface SnapshotMetric<S> {
+
+    /**
+     * Take a snapshot of the metric.
+     */
+    S snapshot();
+}
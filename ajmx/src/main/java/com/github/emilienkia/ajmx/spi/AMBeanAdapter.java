@@ -0,0 +1,119 @@
+package com.github.emilienkia.ajmx.spi;
+
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.annotations.MBeanOperation;
+import com.github.emilienkia.ajmx.annotations.MBeanOperationParam;
+
+/**
+ * Adapter describing an annotated MBean class without reflection.
+ * <p>
+ * Adapters are usually generated at compile time by the AJMX annotation processor, as a companion class
+ * of the annotated class, in the same package and named after the annotated class binary name
+ * (with '$' replaced by '_') suffixed by {@link #CLASS_SUFFIX}.
+ * When such a class is present, the adaptor uses it in place of reflection to introspect the AMBean class.
+ */
+public interface AMBeanAdapter {
+
+    /**
+     * Suffix of adapter class names.
+     */
+    String CLASS_SUFFIX = "_AjmxAdapter";
+
+    /**
+     * Read a value from an AMBean.
+     */
+    @FunctionalInterface
+    interface Reader {
+        Object get(Object bean) throws Throwable;
+    }
+
+    /**
+     * Write a value to an AMBean.
+     */
+    @FunctionalInterface
+    interface Writer {
+        void set(Object bean, Object value) throws Throwable;
+    }
+
+    /**
+     * Invoke an operation on an AMBean.
+     */
+    @FunctionalInterface
+    interface Invoker {
+        Object invoke(Object bean, Object[] params) throws Throwable;
+    }
+
+    /**
+     * Receive descriptions of annotated members.
+     */
+    interface Registrar {
+
+        /**
+         * Declare an annotated field.
+         * @param fieldName Name of the field.
+         * @param type Type of the field.
+         * @param attr Annotation of the field.
+         * @param reader Reader of the field, null if the field is not readable.
+         * @param writer Writer of the field, null if the field is not writable.
+         */
+        void field(String fieldName, Class<?> type, MBeanAttribute attr, Reader reader, Writer writer);
+
+        /**
+         * Declare an annotated getter method.
+         * @param methodName Name of the method.
+         * @param type Return type of the method.
+         * @param attr Annotation of the method.
+         * @param reader Invoker of the method.
+         */
+        void getter(String methodName, Class<?> type, MBeanAttribute attr, Reader reader);
+
+        /**
+         * Declare an annotated setter method.
+         * @param methodName Name of the method.
+         * @param type Parameter type of the method.
+         * @param attr Annotation of the method.
+         * @param writer Invoker of the method.
+         */
+        void setter(String methodName, Class<?> type, MBeanAttribute attr, Writer writer);
+
+        /**
+         * Declare an annotated operation method.
+         * @param methodName Name of the method.
+         * @param returnType Return type of the method.
+         * @param parameterTypes Parameter types of the method.
+         * @param params Parameter annotations, null items for not annotated parameters.
+         * @param op Annotation of the method.
+         * @param invoker Invoker of the method.
+         */
+        void operation(String methodName, Class<?> returnType, Class<?>[] parameterTypes, MBeanOperationParam[] params,
+                       MBeanOperation op, Invoker invoker);
+    }
+
+    /**
+     * Class of AMBean this adapter describes.
+     */
+    Class<?> getBeanClass();
+
+    /**
+     * Describe all annotated members of the AMBean class.
+     * @param registrar Registrar receiving member descriptions.
+     */
+    void describe(Registrar registrar);
+
+    /**
+     * Check operation parameters before invoking an operation.
+     * @param params Parameters passed to the operation.
+     * @param count Expected parameter count.
+     * @return Parameters, never null.
+     * @throws IllegalArgumentException If parameter count does not match.
+     */
+    static Object[] parameters(Object[] params, int count) {
+        if (params == null) {
+            params = new Object[0];
+        }
+        if (params.length != count) {
+            throw new IllegalArgumentException("Expected " + count + " parameter(s) but got " + params.length);
+        }
+        return params;
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.exceptions.NotAnAMBean;
+import com.github.emilienkia.ajmx.impl.entities.NoAnnot;
+import com.github.emilienkia.ajmx.impl.entities.Simple;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncRegistrationTest implements WithAssertions {
+
+    MBeanServer mbeanServer;
+    AjmxAdaptorImpl server;
+    ExecutorService executor;
+
+    @Before
+    public void setup() {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+        server = new AjmxAdaptorImpl(mbeanServer);
+        executor = Executors.newFixedThreadPool(4);
+        server.setAsyncExecutor(executor);
+    }
+
+    @After
+    public void after() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        server.unregisterAllAMBeans();
+        server = null;
+        mbeanServer = null;
+    }
+
+    @Test
+    public void registerAsyncTest() throws Exception {
+        Simple simple = new Simple();
+        ObjectName name = server.registerAMBeanAsync(simple, "async").get(10, TimeUnit.SECONDS);
+        assertThat(server.get(name)).containsSame(simple);
+        assertThat(mbeanServer.isRegistered(name)).isTrue();
+
+        assertThat(server.unregisterAMBeanAsync(simple).get(10, TimeUnit.SECONDS)).isEqualTo(name);
+        assertThat(server.unregisterAMBeanAsync(simple).get(10, TimeUnit.SECONDS)).isNull();
+        assertThat(mbeanServer.isRegistered(name)).isFalse();
+    }
+
+    @Test
+    public void registerAsyncFailureTest() throws Exception {
+        CompletableFuture<ObjectName> future = server.registerAMBeanAsync(new NoAnnot());
+        Throwable thrown = catchThrowable(() -> future.get(10, TimeUnit.SECONDS));
+        assertThat(thrown).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(NotAnAMBean.class);
+    }
+
+    @Test
+    public void orderingTest() throws Exception {
+        List<Simple> beans = new ArrayList<>();
+        List<CompletableFuture<ObjectName>> futures = new ArrayList<>();
+        for (int b = 0; b < 50; b++) {
+            Simple bean = new Simple();
+            beans.add(bean);
+            // Each operation would fail if run out of order
+            for (int i = 0; i < 20; i++) {
+                futures.add(server.registerAMBeanAsync(bean, "b" + b + "i" + i));
+                futures.add(server.unregisterAMBeanAsync(bean));
+            }
+            futures.add(server.registerAMBeanAsync(bean, "b" + b));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+
+        assertThat(futures).allMatch(future -> future.join() != null);
+        assertThat(server.find(new ObjectName("*:type=Simple,*"))).hasSize(beans.size());
+        for (int b = 0; b < beans.size(); b++) {
+            assertThat(server.get(new ObjectName("com.github.emilienkia.ajmx.impl.entities:type=Simple,name=b" + b)))
+                    .containsSame(beans.get(b));
+        }
+        assertThat(server.asyncTails).isEmpty();
+    }
+
+    @Test
+    public void replaceAsyncOrderingTest() throws Exception {
+        Simple first = new Simple();
+        Simple second = new Simple();
+        Simple third = new Simple();
+
+        server.registerAMBeanAsync(first, "replaced");
+        server.replaceAMBeanAsync(first, second);
+        server.replaceAMBeanAsync(second, third);
+        ObjectName name = server.unregisterAMBeanAsync(third).get(10, TimeUnit.SECONDS);
+
+        assertThat(name.getKeyProperty("name")).isEqualTo("replaced");
+        assertThat(server.ambeans).isEmpty();
+        assertThat(mbeanServer.isRegistered(name)).isFalse();
+    }
+
+    @Test
+    public void failureDoesNotBreakOrderingTest() throws Exception {
+        Simple simple = new Simple();
+        // Fails as the object is not registered yet
+        CompletableFuture<ObjectName> failed = server.replaceAMBeanAsync(simple, new Simple());
+        ObjectName name = server.registerAMBeanAsync(simple, "after").get(10, TimeUnit.SECONDS);
+
+        assertThat(catchThrowable(() -> failed.get(10, TimeUnit.SECONDS))).isInstanceOf(ExecutionException.class);
+        assertThat(server.get(name)).isPresent();
+    }
+}
@@ -0,0 +1,208 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.impl.entities.CachedAttributes;
+import com.github.emilienkia.ajmx.impl.entities.RefreshedAttributes;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class AttributeCacheTest implements WithAssertions {
+
+    AjmxAdaptorImpl server;
+
+    @Before
+    public void setup() {
+        server = new AjmxAdaptorImpl();
+    }
+
+    @After
+    public void after() {
+        server.unregisterAllAMBeans();
+        server = null;
+    }
+
+    /**
+     * Wait until the number of loads of the object reaches the expected one.
+     */
+    static void awaitLoads(RefreshedAttributes obj, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (obj.loads.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void cachedValueTest() throws Exception {
+        CachedAttributes obj = new CachedAttributes();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        assertThat(inst.getAttribute("expensive")).isEqualTo(1);
+        assertThat(inst.getAttribute("expensive")).isEqualTo(1);
+        assertThat(obj.loads).hasValue(1);
+
+        assertThat(inst.getAttribute("uncached")).isEqualTo(2);
+        assertThat(inst.getAttribute("uncached")).isEqualTo(3);
+    }
+
+    @Test
+    public void cachePerInstanceTest() throws Exception {
+        CachedAttributes obj1 = new CachedAttributes();
+        CachedAttributes obj2 = new CachedAttributes();
+        obj2.loads.set(100);
+        AjmxAdaptorImpl.Instance inst1 = server.createInstance(obj1, null, null);
+        AjmxAdaptorImpl.Instance inst2 = server.createInstance(obj2, null, null);
+
+        assertThat(inst1.getAttribute("expensive")).isEqualTo(1);
+        assertThat(inst2.getAttribute("expensive")).isEqualTo(101);
+    }
+
+    @Test
+    public void expiredValueTest() throws Exception {
+        CachedAttributes obj = new CachedAttributes();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        assertThat(inst.getAttribute("shortLived")).isEqualTo(1);
+        Thread.sleep(5);
+        assertThat(inst.getAttribute("shortLived")).isEqualTo(2);
+    }
+
+    @Test
+    public void writeInvalidatesTest() throws Exception {
+        CachedAttributes obj = new CachedAttributes();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        assertThat(inst.getAttribute("value")).isEqualTo(0);
+        obj.value = 1;
+        assertThat(inst.getAttribute("value")).isEqualTo(0);
+        inst.setAttribute(new Attribute("value", 2));
+        assertThat(inst.getAttribute("value")).isEqualTo(2);
+    }
+
+    @Test
+    public void writeDuringLoadTest() throws Exception {
+        CachedAttributes obj = new CachedAttributes();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+        obj.settingRead = new CountDownLatch(1);
+        obj.gate = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> read = executor.submit(() -> inst.getAttribute("setting"));
+            assertThat(obj.settingRead.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // Written while the previous value is being loaded
+            inst.setAttribute(new Attribute("setting", 5));
+            obj.gate.countDown();
+            assertThat(read.get(10, TimeUnit.SECONDS)).isEqualTo(0);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(inst.getAttribute("setting")).isEqualTo(5);
+    }
+
+    @Test
+    public void singleFlightTest() throws Exception {
+        CachedAttributes obj = new CachedAttributes();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+        obj.gate = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(executor.submit(() -> inst.getAttribute("expensive")));
+            }
+            Thread.sleep(50);
+            obj.gate.countDown();
+            for (Future<Object> read : reads) {
+                assertThat(read.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(obj.loads).hasValue(1);
+    }
+
+    @Test
+    public void refreshedValueTest() throws Exception {
+        server.assignMbeanServer(MBeanServerFactory.newMBeanServer());
+        RefreshedAttributes obj = new RefreshedAttributes();
+        ObjectName name = server.registerAMBean(obj, "refreshed");
+        AjmxAdaptorImpl.Instance inst = server.names.get(name);
+
+        awaitLoads(obj, 3);
+        assertThat((int) inst.getAttribute("refreshed")).isGreaterThanOrEqualTo(2);
+
+        // Reads do not load the value
+        obj.failing = true;
+        Thread.sleep(20);
+        int loads = obj.loads.get();
+        Object value = inst.getAttribute("refreshed");
+        assertThat(inst.getAttribute("refreshed")).isEqualTo(value).isEqualTo(loads);
+        assertThat(obj.loads).hasValue(loads);
+        assertThat(server.getRefreshFailureCount()).isPositive();
+
+        // Refreshes stop once unregistered
+        obj.failing = false;
+        server.unregisterAMBean(obj);
+        Thread.sleep(30);
+        loads = obj.loads.get();
+        Thread.sleep(30);
+        assertThat(obj.loads).hasValue(loads);
+    }
+
+    @Test
+    public void writeDuringRefreshTest() throws Exception {
+        RefreshedAttributes obj = new RefreshedAttributes();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+        RefreshedValue slot = inst.refreshedValues[inst.descriptor.getAttribute("setting").refreshSlot];
+        assertThat(inst.getAttribute("setting")).isEqualTo(0);
+
+        // Background refresh reading the previous value while the attribute is written
+        long generation = slot.generation();
+        inst.setAttribute(new Attribute("setting", 5));
+        slot.set(0, generation);
+
+        assertThat(inst.getAttribute("setting")).isEqualTo(5);
+    }
+
+    @Test
+    public void refreshAfterReloadTest() throws Exception {
+        RefreshedAttributes obj = new RefreshedAttributes();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+        RefreshedValue slot = inst.refreshedValues[inst.descriptor.getAttribute("setting").refreshSlot];
+        assertThat(inst.getAttribute("setting")).isEqualTo(0);
+
+        // Background refresh started before a write, finishing after the value is read again
+        long generation = slot.generation();
+        inst.setAttribute(new Attribute("setting", 5));
+        assertThat(inst.getAttribute("setting")).isEqualTo(5);
+        int reads = obj.settingReads.get();
+        slot.set(0, generation);
+
+        assertThat(inst.getAttribute("setting")).isEqualTo(5);
+        assertThat(obj.settingReads).hasValue(reads);
+    }
+
+    @Test
+    public void unregisteredRefreshedValueTest() throws Exception {
+        RefreshedAttributes obj = new RefreshedAttributes();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        // Not refreshed while not registered, loaded on first read
+        assertThat(inst.getAttribute("refreshed")).isEqualTo(1);
+        assertThat(inst.getAttribute("refreshed")).isEqualTo(1);
+    }
+}
@@ -9,6 +9,7 @@ import com.github.emilienkia.ajmx.impl.entities.DomainAnnot;
 import com.github.emilienkia.ajmx.impl.entities.DomainTypeAnnot;
 import com.github.emilienkia.ajmx.impl.entities.DomainTypeNameAnnot;
 import com.github.emilienkia.ajmx.impl.entities.EmptyAnnot;
+import com.github.emilienkia.ajmx.impl.entities.FinalField;
 import com.github.emilienkia.ajmx.impl.entities.NoAnnot;
 import org.assertj.core.api.WithAssertions;
 import org.assertj.core.data.Offset;
@@ -19,12 +20,14 @@ import org.junit.Test;
 import javax.management.Attribute;
 import javax.management.AttributeList;
 import javax.management.AttributeNotFoundException;
+import javax.management.InvalidAttributeValueException;
 import javax.management.JMException;
 import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanException;
 import javax.management.ReflectionException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.List;
 
 public class AttributesTest implements WithAssertions {
@@ -280,6 +283,26 @@ public class AttributesTest implements WithAssertions {
                 .isInstanceOf(testedClass).isEqualTo(new BigDecimal("123456789.0123456789"));
     }
 
+    @Test
+    public void attributeNullPrimitiveTest() throws JMException {
+        DomainTypeAnnot obj = new DomainTypeAnnot();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        Throwable thrown = catchThrowable(() -> inst.setAttribute("intAttr", null));
+        assertThat(thrown).isInstanceOf(InvalidAttributeValueException.class);
+        assertThat(inst.getAttribute("intAttr")).isEqualTo(25);
+    }
+
+    @Test
+    public void attributeBadTypeTest() throws JMException {
+        DomainTypeAnnot obj = new DomainTypeAnnot();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        Throwable thrown = catchThrowable(() -> inst.setAttribute("intAttr", "Not an integer"));
+        assertThat(thrown).isInstanceOf(ReflectionException.class);
+        assertThat(inst.getAttribute("intAttr")).isEqualTo(25);
+    }
+
     @Test
     public void attributeDescriptionTest() throws JMException, NoSuchFieldException {
         DomainTypeAnnot obj = new DomainTypeAnnot();
@@ -378,6 +401,23 @@ public class AttributesTest implements WithAssertions {
                 );
     }
 
+    @Test
+    public void getAllAttributesTest() {
+        AttributeAccessAnnot obj = new AttributeAccessAnnot();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        String[] names = Arrays.stream(inst.getMBeanInfo().getAttributes())
+                .map(MBeanAttributeInfo::getName).toArray(String[]::new);
+        String[] readable = Arrays.stream(inst.getMBeanInfo().getAttributes())
+                .filter(MBeanAttributeInfo::isReadable)
+                .map(MBeanAttributeInfo::getName).toArray(String[]::new);
+        assertThat(readable).isNotEmpty().hasSizeLessThan(names.length);
+
+        // Write-only attributes are omitted, others are in MBean info order
+        assertThat(inst.getAttributes().asList()).extracting(Attribute::getName).containsExactly(readable);
+        assertThat(inst.getAttributes(names).asList()).extracting(Attribute::getName).containsExactly(readable);
+    }
+
     @Test
     public void setAttributesTest() {
         DomainTypeAnnot obj = new DomainTypeAnnot();
@@ -411,6 +451,20 @@ public class AttributesTest implements WithAssertions {
         assertThat(thrown).isInstanceOf(AttributeNotFoundException.class).hasMessageContaining("is not writable");
     }
 
+    @Test
+    public void finalFieldAttributeTest() throws JMException {
+        AjmxAdaptorImpl.Instance inst = server.createInstance(new FinalField(), null, null);
+
+        // Final fields are read-only whatever their access mode
+        assertThat(inst.getMBeanInfo().getAttributes())
+                .extracting(MBeanAttributeInfo::getName, MBeanAttributeInfo::isReadable, MBeanAttributeInfo::isWritable)
+                .containsExactly(tuple("constant", true, false));
+        assertThat(inst.getAttribute("constant")).isEqualTo(3);
+
+        Throwable thrown = catchThrowable(() -> inst.setAttribute("constant", 4));
+        assertThat(thrown).isInstanceOf(AttributeNotFoundException.class).hasMessageContaining("is not writable");
+    }
+
     @Test
     public void getMethodWriteOnlyAttributeTest() throws JMException {
         AttributeAccessAnnot obj = new AttributeAccessAnnot();
@@ -0,0 +1,157 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.impl.entities.Simple;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrencyTest implements WithAssertions {
+
+    static final int THREADS = 8;
+    static final int BEANS_PER_THREAD = 500;
+
+    static final String SIMPLE_PATTERN = "com.github.emilienkia.ajmx.impl.entities:type=Simple,*";
+
+    MBeanServer mbeanServer;
+    AjmxAdaptorImpl server;
+    ExecutorService executor;
+
+    @Before
+    public void setup() {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+        server = new AjmxAdaptorImpl(mbeanServer);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void after() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        server.unregisterAllAMBeans();
+        server = null;
+        mbeanServer = null;
+    }
+
+    /**
+     * Run the task concurrently from all threads, starting them at the same time.
+     */
+    <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    @Test
+    public void concurrentRegistrationTest() throws Exception {
+        AtomicInteger threadIds = new AtomicInteger();
+        runConcurrently(() -> {
+            int id = threadIds.getAndIncrement();
+            for (int b = 0; b < BEANS_PER_THREAD; b++) {
+                Simple bean = new Simple();
+                ObjectName name = server.registerAMBean(bean, "t" + id + "b" + b);
+                assertThat(server.get(name)).containsSame(bean);
+                if (b % 2 == 1) {
+                    // Unregister every other bean, alternatively by object and by name
+                    if (b % 4 == 1) {
+                        server.unregisterAMBean(bean);
+                    } else {
+                        server.unregisterAMBean(name);
+                    }
+                }
+            }
+            return null;
+        });
+
+        int expected = THREADS * BEANS_PER_THREAD / 2;
+        ObjectName pattern = new ObjectName(SIMPLE_PATTERN);
+        assertThat(server.find(pattern)).hasSize(expected);
+        assertThat(server.ambeans).hasSize(expected);
+        assertThat(mbeanServer.queryNames(pattern, null)).hasSize(expected)
+                .containsExactlyInAnyOrderElementsOf(server.find(pattern).keySet());
+    }
+
+    @Test
+    public void concurrentSameNameRegistrationTest() throws Exception {
+        List<Integer> registered = runConcurrently(() -> {
+            int count = 0;
+            for (int b = 0; b < BEANS_PER_THREAD; b++) {
+                try {
+                    server.registerAMBean(new Simple(), "b" + b);
+                    count++;
+                } catch (InstanceAlreadyExistsException ex) {
+                    // Another thread won this name
+                }
+            }
+            return count;
+        });
+
+        assertThat(registered.stream().mapToInt(Integer::intValue).sum()).isEqualTo(BEANS_PER_THREAD);
+        assertThat(server.ambeans).hasSize(BEANS_PER_THREAD);
+        assertThat(mbeanServer.queryNames(new ObjectName(SIMPLE_PATTERN), null)).hasSize(BEANS_PER_THREAD);
+    }
+
+    @Test
+    public void concurrentReplaceTest() throws Exception {
+        Simple initial = new Simple();
+        ObjectName name = server.registerAMBean(initial, "replaced");
+
+        List<List<Object>> replaced = runConcurrently(() -> {
+            List<Object> olds = new ArrayList<>();
+            for (int b = 0; b < BEANS_PER_THREAD; b++) {
+                olds.add(server.replaceAMBean(name, new Simple()));
+            }
+            return olds;
+        });
+
+        // Each replaced object must have been returned exactly once, and only the last one remains registered.
+        List<Object> olds = new ArrayList<>();
+        replaced.forEach(olds::addAll);
+        assertThat(olds).hasSize(THREADS * BEANS_PER_THREAD).doesNotHaveDuplicates().contains(initial);
+        Object current = server.get(name).orElseThrow();
+        assertThat(olds).doesNotContain(current);
+        assertThat(server.ambeans).hasSize(1).containsKey(current);
+    }
+
+    @Test
+    public void concurrentUnregisterPatternTest() throws Exception {
+        for (int b = 0; b < THREADS * BEANS_PER_THREAD; b++) {
+            server.registerAMBean(new Simple(), "b" + b);
+        }
+        ObjectName pattern = new ObjectName(SIMPLE_PATTERN);
+        runConcurrently(() -> {
+            server.unregisterAMBeans(pattern);
+            return null;
+        });
+
+        assertThat(server.find(pattern)).isEmpty();
+        assertThat(server.ambeans).isEmpty();
+        assertThat(mbeanServer.queryNames(pattern, null)).isEmpty();
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.impl.entities.Simple;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.concurrent.TimeUnit;
+
+public class DeferredRegistrationTest implements WithAssertions {
+
+    MBeanServer mbeanServer;
+    AjmxAdaptorImpl server;
+
+    @Before
+    public void setup() {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+        server = new AjmxAdaptorImpl(mbeanServer);
+    }
+
+    @After
+    public void after() {
+        server.unregisterAllAMBeans();
+        server.flushPublications();
+        server = null;
+        mbeanServer = null;
+    }
+
+    @Test
+    public void deferredPublicationTest() throws Exception {
+        server.setPublicationDelay(TimeUnit.HOURS.toMillis(1));
+        Simple bean = new Simple();
+        ObjectName name = server.registerAMBean(bean, "deferred");
+
+        // Available from the adaptor but not yet published
+        assertThat(server.get(name)).containsSame(bean);
+        assertThat(mbeanServer.isRegistered(name)).isFalse();
+
+        server.flushPublications();
+        assertThat(mbeanServer.isRegistered(name)).isTrue();
+        assertThat(mbeanServer.getAttribute(name, "value")).isEqualTo(bean.value);
+
+        server.unregisterAMBean(bean);
+        assertThat(server.get(name)).isEmpty();
+        assertThat(mbeanServer.isRegistered(name)).isTrue();
+
+        server.flushPublications();
+        assertThat(mbeanServer.isRegistered(name)).isFalse();
+        assertThat(server.getAppliedPublicationCount()).isEqualTo(2);
+        assertThat(server.getCoalescedPublicationCount()).isZero();
+    }
+
+    @Test
+    public void coalescedPublicationTest() throws Exception {
+        server.setPublicationDelay(TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 10; i++) {
+            Simple bean = new Simple();
+            server.registerAMBean(bean, "short" + i);
+            server.unregisterAMBean(bean);
+        }
+        ObjectName kept = server.registerAMBean(new Simple(), "kept");
+        server.flushPublications();
+
+        assertThat(server.getCoalescedPublicationCount()).isEqualTo(20);
+        assertThat(server.getAppliedPublicationCount()).isEqualTo(1);
+        assertThat(mbeanServer.queryNames(new ObjectName("com.github.emilienkia.ajmx.impl.entities:type=Simple,*"), null))
+                .containsExactly(kept);
+    }
+
+    @Test
+    public void samePublicationNameTest() throws Exception {
+        Simple first = new Simple();
+        ObjectName name = server.registerAMBean(first, "same");
+        server.setPublicationDelay(TimeUnit.HOURS.toMillis(1));
+
+        // Unpublication of the first bean must be applied before publication of the second one
+        server.unregisterAMBean(first);
+        Simple second = new Simple();
+        second.value = 42;
+        server.registerAMBean(second, "same");
+        server.flushPublications();
+
+        assertThat(server.getDroppedPublicationCount()).isZero();
+        assertThat(mbeanServer.getAttribute(name, "value")).isEqualTo(42);
+    }
+
+    @Test
+    public void scheduledPublicationTest() throws Exception {
+        server.setPublicationDelay(10);
+        ObjectName name = server.registerAMBean(new Simple(), "scheduled");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!mbeanServer.isRegistered(name) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(mbeanServer.isRegistered(name)).isTrue();
+    }
+
+    @Test
+    public void resetDelayFlushesTest() throws Exception {
+        server.setPublicationDelay(TimeUnit.HOURS.toMillis(1));
+        ObjectName name = server.registerAMBean(new Simple(), "reset");
+        server.setPublicationDelay(0);
+        assertThat(mbeanServer.isRegistered(name)).isTrue();
+    }
+
+    @Test
+    public void changedServerDropsNothingTest() throws Exception {
+        server.setPublicationDelay(TimeUnit.HOURS.toMillis(1));
+        Simple bean = new Simple();
+        ObjectName name = server.registerAMBean(bean, "moved");
+
+        MBeanServer other = MBeanServerFactory.newMBeanServer();
+        server.assignMbeanServer(other);
+
+        assertThat(mbeanServer.isRegistered(name)).isFalse();
+        assertThat(other.isRegistered(name)).isTrue();
+        assertThat(server.getDroppedPublicationCount()).isZero();
+    }
+}
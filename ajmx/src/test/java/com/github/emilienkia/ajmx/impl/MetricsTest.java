@@ -0,0 +1,322 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.impl.entities.HistogramBean;
+import com.github.emilienkia.ajmx.impl.entities.MeterBean;
+import com.github.emilienkia.ajmx.impl.entities.MetricsBean;
+import com.github.emilienkia.ajmx.impl.entities.SketchBean;
+import com.github.emilienkia.ajmx.metrics.Histogram;
+import com.github.emilienkia.ajmx.metrics.QuantileSketch;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsTest implements WithAssertions {
+
+    MBeanServer mbeanServer;
+    AjmxAdaptorImpl server;
+
+    @Before
+    public void setup() {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+        server = new AjmxAdaptorImpl(mbeanServer);
+    }
+
+    @After
+    public void after() {
+        server.unregisterAllAMBeans();
+        server = null;
+        mbeanServer = null;
+    }
+
+    @Test
+    public void metricAttributesTest() throws Exception {
+        MetricsBean obj = new MetricsBean();
+        ObjectName name = server.registerAMBean(obj, "metrics");
+
+        MBeanAttributeInfo[] infos = mbeanServer.getMBeanInfo(name).getAttributes();
+        assertThat(infos).extracting(MBeanAttributeInfo::getName, MBeanAttributeInfo::getType, MBeanAttributeInfo::isWritable)
+                .containsExactlyInAnyOrder(
+                        tuple("requests", "long", false),
+                        tuple("errors", "long", false),
+                        tuple("maxLatency", "long", false),
+                        tuple("minLatency", "long", false),
+                        tuple("load", "double", false));
+
+        assertThat(mbeanServer.getAttribute(name, "maxLatency")).isEqualTo(0L);
+        assertThat(mbeanServer.getAttribute(name, "minLatency")).isEqualTo(0L);
+
+        obj.requests.increment();
+        obj.requests.add(2);
+        obj.getErrors().increment();
+        obj.maxLatency.record(10);
+        obj.maxLatency.record(5);
+        obj.minLatency.record(10);
+        obj.minLatency.record(5);
+        obj.load.set(0.5);
+
+        assertThat(mbeanServer.getAttribute(name, "requests")).isEqualTo(3L);
+        assertThat(mbeanServer.getAttribute(name, "errors")).isEqualTo(1L);
+        assertThat(mbeanServer.getAttribute(name, "maxLatency")).isEqualTo(10L);
+        assertThat(mbeanServer.getAttribute(name, "minLatency")).isEqualTo(5L);
+        assertThat(mbeanServer.getAttribute(name, "load")).isEqualTo(0.5);
+
+        assertThat(obj.maxLatency.getThenReset()).isEqualTo(10L);
+        assertThat(obj.minLatency.getThenReset()).isEqualTo(5L);
+        assertThat(mbeanServer.getAttribute(name, "maxLatency")).isEqualTo(0L);
+        assertThat(mbeanServer.getAttribute(name, "minLatency")).isEqualTo(0L);
+    }
+
+    @Test
+    public void concurrentIncrementsTest() throws Exception {
+        MetricsBean obj = new MetricsBean();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int id = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    obj.requests.increment();
+                    obj.maxLatency.record(id * 10_000 + i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(inst.getAttribute("requests")).isEqualTo(80_000L);
+        assertThat(inst.getAttribute("maxLatency")).isEqualTo(79_999L);
+    }
+
+    @Test
+    public void histogramAttributesTest() throws Exception {
+        HistogramBean obj = new HistogramBean();
+        ObjectName name = server.registerAMBean(obj, "histogram");
+
+        MBeanAttributeInfo[] infos = mbeanServer.getMBeanInfo(name).getAttributes();
+        assertThat(infos).extracting(MBeanAttributeInfo::getName)
+                .containsExactlyInAnyOrder("latencyCount", "latencyMin", "latencyMax", "latencyMean",
+                        "latencyP50", "latencyP90", "latencyP99", "latencyP999",
+                        "sizesCount", "sizesMin", "sizesMax", "sizesMean",
+                        "sizesP50", "sizesP90", "sizesP99", "sizesP999");
+        assertThat(infos).allMatch(info -> !info.isWritable());
+
+        for (int i = 1; i <= 1000; i++) {
+            obj.latency.record(i * 1000L);
+        }
+        AttributeList list = mbeanServer.getAttributes(name, new String[]{"latencyCount", "latencyMin", "latencyMax",
+                "latencyMean", "latencyP50", "latencyP99"});
+        List<Object> values = new ArrayList<>();
+        list.asList().forEach(attr -> values.add(attr.getValue()));
+        assertThat(values.subList(0, 4)).containsExactly(1000L, 1000L, 1_000_000L, 500_500.0);
+        assertThat((Long) values.get(4)).isCloseTo(500_000L, withinPercentage(4));
+        assertThat((Long) values.get(5)).isCloseTo(990_000L, withinPercentage(4));
+
+        // Each snapshot resets the interval
+        assertThat(mbeanServer.getAttribute(name, "latencyCount")).isEqualTo(0L);
+        assertThat(mbeanServer.getAttribute(name, "latencyP99")).isEqualTo(0L);
+        obj.latency.record(42);
+        assertThat(mbeanServer.getAttribute(name, "latencyMax")).isEqualTo(42L);
+
+        // Snapshots are reused for a while, so separate reads see the same interval
+        obj.getSizes().record(10);
+        assertThat(mbeanServer.getAttribute(name, "sizesCount")).isEqualTo(1L);
+        obj.getSizes().record(20);
+        assertThat(mbeanServer.getAttribute(name, "sizesMax")).isEqualTo(10L);
+    }
+
+    @Test
+    public void histogramPrecisionTest() {
+        Histogram histogram = new Histogram(0, TimeUnit.MILLISECONDS);
+        long value = 1;
+        for (int i = 0; i < 60; i++) {
+            histogram.record(value);
+            long p50 = histogram.snapshot().percentile(0.5);
+            assertThat(p50).isCloseTo(value, withinPercentage(4));
+            value = value * 2 + i;
+        }
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getMin()).isEqualTo(0);
+        assertThat(snapshot.getMax()).isEqualTo(Long.MAX_VALUE);
+        assertThat(snapshot.percentile(1.0)).isLessThanOrEqualTo(Long.MAX_VALUE).isGreaterThan(1L << 47);
+    }
+
+    @Test
+    public void concurrentHistogramTest() throws Exception {
+        Histogram histogram = new Histogram(0, TimeUnit.MILLISECONDS);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    histogram.record(i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        long count = 0;
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            count += histogram.snapshot().getCount();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Histogram.Snapshot last = histogram.snapshot();
+        count += last.getCount();
+
+        // No value is lost or counted twice across intervals
+        assertThat(count).isEqualTo(80_000L);
+    }
+
+    @Test
+    public void sketchAttributesTest() throws Exception {
+        SketchBean obj = new SketchBean();
+        ObjectName name = server.registerAMBean(obj, "sketch");
+
+        for (int i = 1; i <= 1000; i++) {
+            obj.latency.record(i);
+        }
+        obj.latency.record(0);
+        assertThat(mbeanServer.getAttribute(name, "latencyCount")).isEqualTo(1001L);
+        assertThat(mbeanServer.getAttribute(name, "latencyMin")).isEqualTo(0.0);
+        assertThat(mbeanServer.getAttribute(name, "latencyMax")).isEqualTo(1000.0);
+        assertThat((Double) mbeanServer.getAttribute(name, "latencyP99")).isCloseTo(991, withinPercentage(1));
+
+        // Sketches are not reset when read
+        assertThat(mbeanServer.getAttribute(name, "latencyCount")).isEqualTo(1001L);
+        obj.latency.reset();
+        assertThat(mbeanServer.getAttribute(name, "latencyCount")).isEqualTo(0L);
+    }
+
+    @Test
+    public void mergeSketchesTest() throws Exception {
+        List<SketchBean> shards = new ArrayList<>();
+        for (int s = 0; s < 4; s++) {
+            SketchBean shard = new SketchBean();
+            shards.add(shard);
+            server.registerAMBean(shard, "shard" + s);
+        }
+        // One slow shard: averaging per-shard percentiles would be wrong
+        for (int i = 1; i <= 1000; i++) {
+            shards.get(0).latency.record(i * 100);
+            shards.get(1).latency.record(i);
+            shards.get(2).latency.record(i);
+            shards.get(3).latency.record(i);
+        }
+
+        ObjectName pattern = new ObjectName("*:type=SketchBean,*");
+        Optional<QuantileSketch.Snapshot> merged = server.mergeSketches(pattern, "latency");
+        assertThat(merged).isPresent();
+        assertThat(merged.get().getCount()).isEqualTo(4000L);
+        assertThat(merged.get().getMax()).isEqualTo(100_000.0);
+        assertThat(merged.get().getP50()).isCloseTo(665, withinPercentage(1));
+        assertThat(merged.get().getP90()).isCloseTo(60_000, withinPercentage(1));
+        assertThat(merged.get().quantile(0.75)).isCloseTo(997, withinPercentage(1));
+
+        assertThat(server.mergeSketches(pattern, "precise").get().getCount()).isEqualTo(0L);
+        assertThat(server.mergeSketches(pattern, "unknown")).isEmpty();
+        assertThat(server.mergeSketches(new ObjectName("*:type=Other,*"), "latency")).isEmpty();
+
+        // Other metrics are neither merged nor drained
+        shards.get(0).durations.record(10);
+        assertThatThrownBy(() -> server.mergeSketches(pattern, "durations")).isInstanceOf(AttributeNotFoundException.class);
+        assertThat(shards.get(0).durations.snapshot().getCount()).isEqualTo(1L);
+
+        QuantileSketch.Snapshot precise = shards.get(0).precise.snapshot();
+        assertThatThrownBy(() -> merged.get().merge(precise)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void sketchBoundsTest() {
+        QuantileSketch sketch = new QuantileSketch(0.01, 1.0, 256);
+        sketch.record(0.5);
+        sketch.record(1e12);
+        QuantileSketch.Snapshot snapshot = sketch.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(2L);
+        assertThat(snapshot.quantile(0.5)).isEqualTo(0.5);
+        // Values above the last bucket are counted in it
+        assertThat(snapshot.quantile(1.0)).isLessThan(1e12).isGreaterThan(100.0);
+    }
+
+    @Test
+    public void meterAttributesTest() throws Exception {
+        MeterBean obj = new MeterBean();
+        ObjectName name = server.registerAMBean(obj, "meter");
+
+        assertThat(mbeanServer.getMBeanInfo(name).getAttributes()).extracting(MBeanAttributeInfo::getName)
+                .containsExactlyInAnyOrder("requestsCount", "requestsMeanRate", "requestsOneMinuteRate",
+                        "requestsFiveMinuteRate", "requestsFifteenMinuteRate");
+
+        obj.requests.mark();
+        obj.requests.mark(49);
+        assertThat(mbeanServer.getAttribute(name, "requestsCount")).isEqualTo(50L);
+        assertThat((Double) mbeanServer.getAttribute(name, "requestsMeanRate")).isPositive();
+        assertThat(mbeanServer.getAttribute(name, "requestsOneMinuteRate")).isEqualTo(0.0);
+
+        obj.requests.tick();
+        assertThat(mbeanServer.getAttribute(name, "requestsCount")).isEqualTo(50L);
+        assertThat(mbeanServer.getAttribute(name, "requestsOneMinuteRate")).isEqualTo(10.0);
+        assertThat(mbeanServer.getAttribute(name, "requestsFifteenMinuteRate")).isEqualTo(10.0);
+
+        // Rates decay without events, the shorter ones faster
+        for (int i = 0; i < 12; i++) {
+            obj.requests.tick();
+        }
+        assertThat((Double) mbeanServer.getAttribute(name, "requestsOneMinuteRate")).isCloseTo(10.0 / Math.E, within(0.01));
+        assertThat((Double) mbeanServer.getAttribute(name, "requestsFiveMinuteRate")).isCloseTo(10.0 * Math.exp(-0.2), within(0.01));
+        assertThat(mbeanServer.getAttribute(name, "requestsCount")).isEqualTo(50L);
+    }
+
+    @Test
+    public void meterTickerTest() throws Exception {
+        MeterBean first = new MeterBean();
+        MeterBean second = new MeterBean();
+        server.registerAMBean(first, "first");
+        ObjectName name = server.registerAMBean(second, "second");
+        assertThat(MeterTicker.shared().meters).containsKeys(first.requests, second.requests);
+
+        MeterBean third = new MeterBean();
+        server.replaceAMBean(name, third);
+        assertThat(MeterTicker.shared().meters).containsKeys(first.requests, third.requests)
+                .doesNotContainKey(second.requests);
+
+        server.unregisterAMBean(first);
+        server.unregisterAMBean(third);
+        assertThat(MeterTicker.shared().meters).doesNotContainKeys(first.requests, third.requests);
+    }
+
+    @Test
+    public void meterInTwoAdaptorsTest() throws Exception {
+        AjmxAdaptorImpl other = new AjmxAdaptorImpl(MBeanServerFactory.newMBeanServer());
+        try {
+            MeterBean obj = new MeterBean();
+            server.registerAMBean(obj, "shared");
+            other.registerAMBean(obj, "shared");
+            // Held once by the shared ticker, so ticked once per interval whatever the number of adaptors
+            assertThat(MeterTicker.shared().meters).containsEntry(obj.requests, 2);
+
+            other.unregisterAMBean(obj);
+            assertThat(MeterTicker.shared().meters).containsEntry(obj.requests, 1);
+            server.unregisterAMBean(obj);
+            assertThat(MeterTicker.shared().meters).doesNotContainKey(obj.requests);
+        } finally {
+            other.unregisterAllAMBeans();
+        }
+    }
+}
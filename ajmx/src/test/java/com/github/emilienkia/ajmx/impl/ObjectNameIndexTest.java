@@ -0,0 +1,69 @@
+package com.github.emilienkia.ajmx.impl;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+public class ObjectNameIndexTest implements WithAssertions {
+
+    ObjectNameIndex<String> index;
+
+    ObjectName conn1, conn2, pool, other;
+
+    @Before
+    public void setup() throws MalformedObjectNameException {
+        index = new ObjectNameIndex<>();
+        conn1 = new ObjectName("test:type=Connection,name=conn1");
+        conn2 = new ObjectName("test:type=Connection,name=conn2,host=local");
+        pool = new ObjectName("test:type=Pool,name=pool");
+        other = new ObjectName("other:type=Connection,name=conn1");
+        index.put(conn1, "conn1");
+        index.put(conn2, "conn2");
+        index.put(pool, "pool");
+        index.put(other, "other");
+    }
+
+    @Test
+    public void findByNameTest() throws MalformedObjectNameException {
+        assertThat(index.find(new ObjectName("test:name=conn1,type=Connection"))).containsOnly(entry(conn1, "conn1"));
+        assertThat(index.find(new ObjectName("test:type=Connection,name=none"))).isEmpty();
+    }
+
+    @Test
+    public void findByDomainTest() throws MalformedObjectNameException {
+        assertThat(index.find(new ObjectName("test:*"))).containsOnlyKeys(conn1, conn2, pool);
+        assertThat(index.candidates(new ObjectName("other:*"))).containsOnly(other);
+    }
+
+    @Test
+    public void findByKeyTest() throws MalformedObjectNameException {
+        assertThat(index.find(new ObjectName("test:type=Connection,*"))).containsOnlyKeys(conn1, conn2);
+        assertThat(index.find(new ObjectName("*:type=Connection,*"))).containsOnlyKeys(conn1, conn2, other);
+        assertThat(index.find(new ObjectName("*:host=local,*"))).containsOnlyKeys(conn2);
+        assertThat(index.candidates(new ObjectName("*:host=local,*"))).containsOnly(conn2);
+    }
+
+    @Test
+    public void findByWildcardTest() throws MalformedObjectNameException {
+        assertThat(index.find(new ObjectName("test:type=Connection,name=conn*,*"))).containsOnlyKeys(conn1, conn2);
+        assertThat(index.find(new ObjectName("t?st:type=*,name=pool"))).containsOnlyKeys(pool);
+        assertThat(index.find(new ObjectName("*:*"))).hasSize(4);
+    }
+
+    @Test
+    public void removeTest() throws MalformedObjectNameException {
+        assertThat(index.remove(conn2, "other")).isFalse();
+        assertThat(index.remove(conn2, "conn2")).isTrue();
+        assertThat(index.remove(pool)).isEqualTo("pool");
+        assertThat(index.find(new ObjectName("test:*"))).containsOnlyKeys(conn1);
+        assertThat(index.byKey).doesNotContainKey("host");
+        assertThat(index.byKey.get("type")).doesNotContainKey("Pool");
+
+        index.clear();
+        assertThat(index.size()).isZero();
+        assertThat(index.find(new ObjectName("*:*"))).isEmpty();
+    }
+}
@@ -1,9 +1,13 @@
 package com.github.emilienkia.ajmx.impl;
 
 import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.exceptions.OperationDescriptorException;
+import com.github.emilienkia.ajmx.impl.entities.CachedOperations;
 import com.github.emilienkia.ajmx.impl.entities.DomainAnnot;
 import com.github.emilienkia.ajmx.impl.entities.DomainTypeAnnot;
 import com.github.emilienkia.ajmx.impl.entities.EmptyAnnot;
+import com.github.emilienkia.ajmx.impl.entities.OverloadedOperations;
+import com.github.emilienkia.ajmx.impl.entities.TimedOperations;
 import org.assertj.core.api.WithAssertions;
 import org.assertj.core.data.Offset;
 import org.junit.After;
@@ -111,4 +115,142 @@ public class OperationsTest implements WithAssertions {
         assertThat(res).isNotNull().isInstanceOf(Double.class)
                 .asInstanceOf(DOUBLE).isEqualTo( 10.2 , Offset.offset(0.0001) );
     }
+
+    @Test
+    public void badParameterTypeOperationTest() {
+        DomainTypeAnnot obj = new DomainTypeAnnot();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        Object[] params = new Object[] {
+                42
+        };
+        String[] signature = new String[] {
+                String.class.getName()
+        };
+
+        Throwable thrown = catchThrowable(() -> inst.invoke("hello", params, signature));
+        assertThat(thrown).isInstanceOf(ReflectionException.class);
+    }
+
+    @Test
+    public void badParameterCountOperationTest() {
+        DomainTypeAnnot obj = new DomainTypeAnnot();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        Throwable thrown = catchThrowable(() -> inst.invoke("hello", new Object[0], new String[0]));
+        assertThat(thrown).isInstanceOf(ReflectionException.class);
+    }
+
+    @Test
+    public void wrongSignatureOperationTest() {
+        AjmxAdaptorImpl.Instance inst = server.createInstance(new DomainTypeAnnot(), null, null);
+
+        // Not overloaded, but the signature does not match the operation one
+        Throwable thrown = catchThrowable(() -> inst.invoke("hello", new Object[]{"World"}, new String[]{"int"}));
+        assertThat(thrown).isInstanceOf(ReflectionException.class)
+                .hasCauseInstanceOf(NoSuchMethodException.class);
+    }
+
+    @Test
+    public void cachedOperationTest() throws JMException {
+        CachedOperations obj = new CachedOperations();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        assertThat(inst.invoke("dumpTopKeys", new Object[]{10}, null)).isEqualTo("10#1");
+        assertThat(inst.invoke("dumpTopKeys", new Object[]{10}, null)).isEqualTo("10#1");
+        assertThat(inst.invoke("dumpTopKeys", new Object[]{20}, null)).isEqualTo("20#2");
+        assertThat(obj.invocations).hasValue(2);
+
+        // Least recently used result is evicted
+        assertThat(inst.invoke("dumpTopKeys", new Object[]{10}, null)).isEqualTo("10#1");
+        assertThat(inst.invoke("dumpTopKeys", new Object[]{30}, null)).isEqualTo("30#3");
+        assertThat(inst.invoke("dumpTopKeys", new Object[]{10}, null)).isEqualTo("10#1");
+        assertThat(inst.invoke("dumpTopKeys", new Object[]{20}, null)).isEqualTo("20#4");
+
+        // Results are cached per AMBean
+        AjmxAdaptorImpl.Instance other = server.createInstance(new CachedOperations(), null, null);
+        assertThat(other.invoke("dumpTopKeys", new Object[]{10}, null)).isEqualTo("10#1");
+
+        assertThat(inst.invoke("uncached", null, null)).isEqualTo(5);
+        assertThat(inst.invoke("uncached", null, null)).isEqualTo(6);
+    }
+
+    @Test
+    public void cachedArrayArgumentTest() throws JMException {
+        CachedOperations obj = new CachedOperations();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        int[][] values = {{1, 2}, {3}};
+        assertThat(inst.invoke("sum", new Object[]{values}, null)).isEqualTo(6);
+
+        // Modifying the argument once cached does not alter the cached key
+        values[0][0] = 10;
+        assertThat(inst.invoke("sum", new Object[]{values}, null)).isEqualTo(15);
+        assertThat(inst.invoke("sum", new Object[]{new int[][]{{1, 2}, {3}}}, null)).isEqualTo(6);
+        assertThat(obj.invocations).hasValue(2);
+    }
+
+    @Test
+    public void cachedActionTest() {
+        assertThatThrownBy(() -> server.createInstance(new CachedOperations.CachedAction(), null, null))
+                .isInstanceOf(OperationDescriptorException.class);
+    }
+
+    @Test
+    public void overloadedOperationTest() throws JMException {
+        AjmxAdaptorImpl.Instance inst = server.createInstance(new OverloadedOperations(), null, null);
+
+        assertThat(inst.getMBeanInfo().getOperations()).hasSize(4);
+        assertThat(inst.invoke("format", new Object[]{1}, new String[]{"int"})).isEqualTo("int:1");
+        assertThat(inst.invoke("format", new Object[]{2L}, new String[]{"long"})).isEqualTo("long:2");
+        assertThat(inst.invoke("format", new Object[]{"a"}, new String[]{String.class.getName()})).isEqualTo("string:a");
+        assertThat(inst.invoke("format", new Object[]{"a", 3}, new String[]{String.class.getName(), "int"})).isEqualTo("string:aaa");
+
+        // Wrapper types match primitive parameters
+        assertThat(inst.invoke("format", new Object[]{1}, new String[]{Integer.class.getName()})).isEqualTo("int:1");
+        assertThat(inst.invoke("format", new Object[]{2L}, new String[]{Long.class.getName()})).isEqualTo("long:2");
+
+        // Without signature, overload is chosen by parameter count when not ambiguous
+        assertThat(inst.invoke("format", new Object[]{"a", 2}, null)).isEqualTo("string:aa");
+        assertThat(catchThrowable(() -> inst.invoke("format", new Object[]{1}, null)))
+                .isInstanceOf(ReflectionException.class);
+
+        assertThat(catchThrowable(() -> inst.invoke("format", new Object[]{1.0}, new String[]{"double"})))
+                .isInstanceOf(ReflectionException.class);
+    }
+
+    @Test
+    public void timedOperationTest() throws JMException {
+        AjmxAdaptorImpl.Instance inst = server.createInstance(new TimedOperations(), null, null);
+
+        assertThat(inst.getMBeanInfo().getAttributes()).extracting(MBeanAttributeInfo::getName)
+                .containsExactlyInAnyOrder("rebalanceInvocations", "rebalanceErrors",
+                        "rebalanceLatencyCount", "rebalanceLatencyMin", "rebalanceLatencyMax", "rebalanceLatencyMean",
+                        "rebalanceLatencyP50", "rebalanceLatencyP90", "rebalanceLatencyP99", "rebalanceLatencyP999");
+        assertThat(inst.getMBeanInfo().getAttributes()).allMatch(info -> info.isReadable() && !info.isWritable());
+
+        inst.invoke("rebalance", new Object[]{1_000_000L}, new String[]{"long"});
+        inst.invoke("rebalance", new Object[]{"p1"}, new String[]{String.class.getName()});
+        assertThat(catchThrowable(() -> inst.invoke("rebalance", new Object[]{""}, new String[]{String.class.getName()})))
+                .isInstanceOf(MBeanException.class);
+        inst.invoke("untimed", null, null);
+
+        // Overloads share the same statistics
+        assertThat(inst.getAttribute("rebalanceInvocations")).isEqualTo(3L);
+        assertThat(inst.getAttribute("rebalanceErrors")).isEqualTo(1L);
+        AttributeList list = inst.getAttributes(new String[]{"rebalanceLatencyCount", "rebalanceLatencyMax"});
+        assertThat(list.asList().get(0).getValue()).isEqualTo(3L);
+        assertThat((Long) list.asList().get(1).getValue()).isGreaterThanOrEqualTo(1_000_000L);
+        assertThat(inst.getAttributes()).hasSize(10);
+
+        // Statistics are held by the AMBean, not by the object
+        assertThat(catchThrowable(() -> inst.descriptor.getAttributeValue("rebalanceInvocations", inst.getObject())))
+                .isInstanceOf(AttributeNotFoundException.class);
+    }
+
+    @Test
+    public void timedOperationConflictTest() {
+        assertThatThrownBy(() -> server.createInstance(new TimedOperations.Conflicting(), null, null))
+                .isInstanceOf(OperationDescriptorException.class);
+    }
 }
@@ -0,0 +1,144 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.impl.entities.Simple;
+import com.github.emilienkia.ajmx.impl.entities.ValueEquality;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import static com.github.emilienkia.ajmx.impl.AjmxAdaptorImpl.RegistrationMode.EQUALITY;
+import static com.github.emilienkia.ajmx.impl.AjmxAdaptorImpl.RegistrationMode.IDENTITY;
+import static com.github.emilienkia.ajmx.impl.AjmxAdaptorImpl.RegistrationMode.WEAK;
+
+public class RegistrationModeTest implements WithAssertions {
+
+    MBeanServer mbeanServer;
+    AjmxAdaptorImpl server;
+
+    @Before
+    public void setup() {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+        server = new AjmxAdaptorImpl(mbeanServer);
+    }
+
+    @After
+    public void after() {
+        server.unregisterAllAMBeans();
+        server = null;
+        mbeanServer = null;
+    }
+
+    @Test
+    public void equalityModeTest() throws JMException {
+        assertThat(server.getRegistrationMode()).isEqualTo(EQUALITY);
+        ValueEquality obj1 = new ValueEquality("a");
+        ValueEquality obj2 = new ValueEquality("a");
+
+        server.registerAMBean(obj1, "obj1");
+        assertThat(server.hasAMBean(obj2)).isTrue();
+
+        // Registering an equal object replaces the previous registration
+        ObjectName name2 = server.registerAMBean(obj2, "obj2");
+        assertThat(server.find(new ObjectName("*:type=ValueEquality,*"))).containsOnlyKeys(name2);
+        assertThat(mbeanServer.queryNames(new ObjectName("*:type=ValueEquality,*"), null)).containsOnly(name2);
+    }
+
+    @Test
+    public void identityModeTest() throws JMException {
+        server.setRegistrationMode(IDENTITY);
+        ValueEquality obj1 = new ValueEquality("a");
+        ValueEquality obj2 = new ValueEquality("a");
+
+        ObjectName name1 = server.registerAMBean(obj1, "obj1");
+        assertThat(server.hasAMBean(obj1)).isTrue();
+        assertThat(server.hasAMBean(obj2)).isFalse();
+
+        ObjectName name2 = server.registerAMBean(obj2, "obj2");
+        assertThat(server.get(name1)).containsSame(obj1);
+        assertThat(server.get(name2)).containsSame(obj2);
+
+        ValueEquality obj3 = new ValueEquality("a");
+        assertThat(server.replaceAMBean(obj1, obj3)).isEqualTo(name1);
+        assertThat(server.get(name1)).containsSame(obj3);
+        assertThat(server.hasAMBean(obj1)).isFalse();
+
+        server.unregisterAMBean(obj3);
+        assertThat(server.get(name1)).isEmpty();
+        assertThat(server.get(name2)).containsSame(obj2);
+    }
+
+    @Test
+    public void changeModeTest() throws JMException {
+        server.registerAMBean(new Simple(), "simple");
+        Throwable thrown = catchThrowable(() -> server.setRegistrationMode(WEAK));
+        assertThat(thrown).isInstanceOf(IllegalStateException.class);
+
+        server.unregisterAllAMBeans();
+        server.setRegistrationMode(WEAK);
+        assertThat(server.getRegistrationMode()).isEqualTo(WEAK);
+    }
+
+    @Test
+    public void weakModeTest() throws Exception {
+        server.setRegistrationMode(WEAK);
+        Simple kept = new Simple();
+        kept.value = 12;
+        ObjectName keptName = server.registerAMBean(kept, "kept");
+        ObjectName droppedName = server.registerAMBean(new Simple(), "dropped");
+
+        assertThat(mbeanServer.isRegistered(droppedName)).isTrue();
+        assertThat(mbeanServer.getAttribute(keptName, "value")).isEqualTo(12);
+
+        for (int i = 0; i < 50 && server.get(droppedName).isPresent(); i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertThat(server.get(droppedName)).isEmpty();
+        assertThat(mbeanServer.isRegistered(droppedName)).isFalse();
+        assertThat(server.ambeans).hasSize(1);
+
+        assertThat(server.get(keptName)).containsSame(kept);
+        assertThat(mbeanServer.getAttribute(keptName, "value")).isEqualTo(12);
+    }
+
+    @Test
+    public void weakModeIdleAdaptorTest() throws Exception {
+        server.setRegistrationMode(WEAK);
+        ObjectName droppedName = server.registerAMBean(new Simple(), "dropped");
+
+        // Collected object is unregistered without calling the adaptor
+        for (int i = 0; i < 100 && mbeanServer.isRegistered(droppedName); i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertThat(mbeanServer.isRegistered(droppedName)).isFalse();
+        assertThat(server.ambeans).isEmpty();
+    }
+
+    @Test
+    public void weakModeReplaceTest() throws Exception {
+        server.setRegistrationMode(WEAK);
+        Simple replaced = new Simple();
+        ObjectName name = server.registerAMBean(replaced, "replaced");
+        Simple other = new Simple();
+        other.value = 42;
+        server.replaceAMBean(replaced, other);
+        replaced = null;
+
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        // The replaced object being collected must not unregister the AMBean
+        assertThat(server.get(name)).containsSame(other);
+        assertThat(mbeanServer.getAttribute(name, "value")).isEqualTo(42);
+    }
+}
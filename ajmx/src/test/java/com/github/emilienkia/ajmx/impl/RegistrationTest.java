@@ -2,6 +2,7 @@ package com.github.emilienkia.ajmx.impl;
 
 import com.github.emilienkia.ajmx.annotations.MBean;
 import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.exceptions.AMBeanBatchException;
 import com.github.emilienkia.ajmx.exceptions.NotAnAMBean;
 import com.github.emilienkia.ajmx.impl.entities.DomainAnnot;
 import com.github.emilienkia.ajmx.impl.entities.DomainTypeAnnot;
@@ -212,4 +213,93 @@ public class RegistrationTest implements WithAssertions {
         assertThat(res).containsOnly(entry(name1, simple1), entry(name2, simple2));
     }
 
+    @Test
+    public void testUnregisterByName() throws JMException {
+        Simple simple1 = new Simple();
+        Simple simple2 = new Simple();
+        Simple replacement = new Simple();
+
+        ObjectName name1 = server.registerAMBean(simple1, "simple1");
+        ObjectName name2 = server.registerAMBean(simple2, "simple2");
+
+        server.replaceAMBean(name1, replacement);
+        server.unregisterAMBean(name1);
+
+        assertThat(server.get(name1)).isEmpty();
+        assertThat(server.hasAMBean(replacement)).isFalse();
+        assertThat(server.get(name2)).isNotEmpty().get().isEqualTo(simple2);
+        assertThat(server.hasAMBean(simple2)).isTrue();
+
+        Throwable thrown = catchThrowable(() -> server.unregisterAMBean(name1));
+        assertThat(thrown).isInstanceOf(InstanceNotFoundException.class);
+
+        server.unregisterAMBean(simple2);
+        assertThat(server.get(name2)).isEmpty();
+    }
+
+    @Test
+    public void sharedDescriptorTest() {
+        AjmxAdaptorImpl other = new AjmxAdaptorImpl();
+        assertThat(server.getDescriptor(Simple.class))
+                .isNotNull()
+                .isSameAs(other.getDescriptor(Simple.class));
+        assertThat(server.isAMBean(NoAnnot.class)).isFalse();
+    }
+
+    @Test
+    public void negativeDescriptorCacheTest() {
+        // Local class, never looked up by other tests
+        class NotAnAMBean {
+        }
+        assertThat(server.isAMBean(NotAnAMBean.class)).isFalse();
+        long hits = server.getDescriptorCacheHitCount();
+        long misses = server.getDescriptorCacheMissCount();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(server.isAMBean(NotAnAMBean.class)).isFalse();
+        }
+        assertThat(server.getDescriptorCacheMissCount()).isEqualTo(misses);
+        assertThat(server.getDescriptorCacheHitCount()).isGreaterThanOrEqualTo(hits + 10);
+    }
+
+    @Test
+    public void batchRegistrationTest() throws JMException {
+        Simple simple1 = new Simple();
+        Simple simple2 = new Simple();
+        DomainTypeNameAnnot obj = new DomainTypeNameAnnot();
+
+        List<ObjectName> names = server.registerAMBeans(List.of(simple1, simple2, obj));
+        assertThat(names).hasSize(3).doesNotHaveDuplicates();
+        assertThat(server.get(names.get(0))).containsSame(simple1);
+        assertThat(server.get(names.get(1))).containsSame(simple2);
+        assertThat(server.get(names.get(2))).containsSame(obj);
+
+        server.unregisterAMBeans(List.of(simple1, obj, new Simple()));
+        assertThat(server.hasAMBean(simple1)).isFalse();
+        assertThat(server.hasAMBean(simple2)).isTrue();
+        assertThat(server.hasAMBean(obj)).isFalse();
+    }
+
+    @Test
+    public void batchRegistrationFailureTest() throws JMException {
+        Simple simple = new Simple();
+        NoAnnot noAnnot = new NoAnnot();
+        DomainTypeNameAnnot obj1 = new DomainTypeNameAnnot();
+        DomainTypeNameAnnot obj2 = new DomainTypeNameAnnot(); // Same name than obj1
+
+        Throwable thrown = catchThrowable(() -> server.registerAMBeans(List.of(simple, noAnnot, obj1, obj2)));
+        assertThat(thrown).isInstanceOf(AMBeanBatchException.class);
+        Map<Object, Exception> failures = ((AMBeanBatchException) thrown).getFailures();
+        assertThat(failures).containsOnlyKeys(noAnnot, obj2);
+        assertThat(failures.get(noAnnot)).isInstanceOf(NotAnAMBean.class);
+        assertThat(failures.get(obj2)).isInstanceOf(InstanceAlreadyExistsException.class);
+        assertThat(thrown.getSuppressed()).hasSize(2);
+
+        assertThat(server.hasAMBean(simple)).isTrue();
+        assertThat(server.hasAMBean(obj1)).isTrue();
+        Map<Object, ObjectName> registered = ((AMBeanBatchException) thrown).getProcessed();
+        assertThat(registered).containsOnlyKeys(simple, obj1);
+        assertThat(server.get(registered.get(obj1))).containsSame(obj1);
+    }
+
 }
@@ -0,0 +1,103 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.impl.entities.Simple;
+import com.github.emilienkia.ajmx.impl.entities.TimedOperations;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+public class SelfMonitoringTest implements WithAssertions {
+
+    MBeanServer mbeanServer;
+    AjmxAdaptorImpl server;
+
+    @Before
+    public void setup() {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+        server = new AjmxAdaptorImpl(mbeanServer);
+    }
+
+    @After
+    public void after() {
+        server.unregisterAllAMBeans();
+        server = null;
+        mbeanServer = null;
+    }
+
+    private ObjectName adaptorName() throws Exception {
+        return server.find(new ObjectName("com.github.emilienkia.ajmx:type=AjmxAdaptor,*")).keySet().iterator().next();
+    }
+
+    @Test
+    public void adaptorStatisticsTest() throws Exception {
+        server.registerAMBean(new Simple(), "before");
+        server.setSelfMonitoring(true);
+        assertThat(server.isSelfMonitoring()).isTrue();
+        ObjectName name = adaptorName();
+
+        Simple simple = new Simple();
+        server.registerAMBean(simple, "after");
+        server.unregisterAMBean(simple);
+
+        // Self-monitoring AMBeans are not counted
+        assertThat(mbeanServer.getAttribute(name, "registrySize")).isEqualTo(1);
+        assertThat((Long) mbeanServer.getAttribute(name, "descriptorCacheSize")).isPositive();
+        assertThat((Double) mbeanServer.getAttribute(name, "descriptorCacheHitRate")).isBetween(0.0, 1.0);
+        // Registration of the statistics of the Simple class and of the "after" AMBean
+        assertThat(mbeanServer.getAttribute(name, "registrationsCount")).isEqualTo(2L);
+        assertThat(mbeanServer.getAttribute(name, "unregistrationsCount")).isEqualTo(1L);
+        assertThat(mbeanServer.getAttribute(name, "registrationLatencyCount")).isEqualTo(2L);
+        assertThat(mbeanServer.getAttribute(name, "registrationErrors")).isEqualTo(0L);
+
+        assertThatThrownBy(() -> server.registerAMBean(new Simple(), "before"));
+        assertThat(mbeanServer.getAttribute(name, "registrationErrors")).isEqualTo(1L);
+    }
+
+    @Test
+    public void typeStatisticsTest() throws Exception {
+        server.setSelfMonitoring(true);
+        ObjectName simpleName = server.registerAMBean(new Simple(), "simple");
+        ObjectName timedName = server.registerAMBean(new TimedOperations(), "timed");
+
+        mbeanServer.getAttribute(simpleName, "value");
+        // Read-only attribute
+        assertThatThrownBy(() -> mbeanServer.setAttribute(simpleName, new Attribute("value", 3)));
+        assertThat(mbeanServer.getAttributes(simpleName, new String[]{"value", "unknown"})).hasSize(1);
+        assertThatThrownBy(() -> mbeanServer.getAttribute(simpleName, "unknown")).isInstanceOf(AttributeNotFoundException.class);
+        mbeanServer.invoke(timedName, "untimed", null, null);
+
+        ObjectName simpleStats = server.find(new ObjectName("com.github.emilienkia.ajmx:type=AjmxBeanType,name="
+                + Simple.class.getName() + "@*")).keySet().iterator().next();
+        assertThat(mbeanServer.getAttribute(simpleStats, "attributeReads")).isEqualTo(3L);
+        assertThat(mbeanServer.getAttribute(simpleStats, "attributeWrites")).isEqualTo(1L);
+        // Unknown read, partially failed batch read and read-only write
+        assertThat(mbeanServer.getAttribute(simpleStats, "errors")).isEqualTo(3L);
+        assertThat(mbeanServer.getAttribute(simpleStats, "readLatencyCount")).isEqualTo(3L);
+        assertThat(mbeanServer.getAttribute(simpleStats, "invocations")).isEqualTo(0L);
+
+        ObjectName timedStats = server.find(new ObjectName("com.github.emilienkia.ajmx:type=AjmxBeanType,name="
+                + TimedOperations.class.getName() + "@*")).keySet().iterator().next();
+        assertThat(mbeanServer.getAttribute(timedStats, "invocations")).isEqualTo(1L);
+        assertThat((Long) mbeanServer.getAttribute(timedStats, "invokeLatencyMax")).isPositive();
+    }
+
+    @Test
+    public void disableTest() throws Exception {
+        ObjectName simpleName = server.registerAMBean(new Simple(), "simple");
+        server.setSelfMonitoring(true);
+        assertThat(server.find(new ObjectName("com.github.emilienkia.ajmx:*"))).hasSize(2);
+
+        server.setSelfMonitoring(false);
+        assertThat(server.isSelfMonitoring()).isFalse();
+        assertThat(server.find(new ObjectName("com.github.emilienkia.ajmx:*"))).isEmpty();
+        assertThat(server.typeStatistics).isEmpty();
+        assertThat(mbeanServer.getAttribute(simpleName, "value")).isNotNull();
+    }
+}
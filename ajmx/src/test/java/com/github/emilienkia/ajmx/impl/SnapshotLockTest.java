@@ -0,0 +1,87 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.exceptions.AttributeDescriptorException;
+import com.github.emilienkia.ajmx.impl.entities.BadSnapshotLock;
+import com.github.emilienkia.ajmx.impl.entities.SequenceCounters;
+import com.github.emilienkia.ajmx.impl.entities.StampedCounters;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+public class SnapshotLockTest implements WithAssertions {
+
+    static final int READS = 20_000;
+
+    AjmxAdaptorImpl server;
+
+    @Before
+    public void setup() {
+        server = new AjmxAdaptorImpl();
+    }
+
+    @After
+    public void after() {
+        server = null;
+    }
+
+    /**
+     * Read requests and errors while the writer runs, they must always be equal.
+     */
+    void assertConsistentReads(AjmxAdaptorImpl.Instance inst, Runnable writer) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread thread = new Thread(() -> {
+            for (int n = 1; running.get(); n++) {
+                writer.run();
+                if(n % 64 == 0) {
+                    // Writers eventually pause, sequence readers give up otherwise
+                    LockSupport.parkNanos(1000);
+                }
+            }
+        });
+        thread.start();
+        try {
+            for (int i = 0; i < READS; i++) {
+                AttributeList values = inst.getAttributes(new String[]{"requests", "errors"});
+                assertThat(values.asList()).hasSize(2).extracting(Attribute::getValue)
+                        .containsOnly(values.asList().get(0).getValue());
+            }
+        } finally {
+            running.set(false);
+            thread.join();
+        }
+    }
+
+    @Test
+    public void stampedLockTest() throws InterruptedException {
+        StampedCounters obj = new StampedCounters();
+        assertConsistentReads(server.createInstance(obj, null, null), obj::increment);
+    }
+
+    @Test
+    public void sequenceTest() throws InterruptedException {
+        SequenceCounters obj = new SequenceCounters();
+        assertConsistentReads(server.createInstance(obj, null, null), obj::increment);
+    }
+
+    @Test
+    public void stuckWriterTest() {
+        SequenceCounters obj = new SequenceCounters();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+        obj.startWrite();
+
+        // Consistent read is given up, attributes are omitted
+        assertThat(inst.getAttributes(new String[]{"requests", "errors"})).isEmpty();
+    }
+
+    @Test
+    public void badSnapshotLockTest() {
+        assertThatThrownBy(() -> server.createInstance(new BadSnapshotLock(), null, null))
+                .isInstanceOf(AttributeDescriptorException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.emilienkia.ajmx.impl;
+
+import com.github.emilienkia.ajmx.impl.entities.SnapshotStats;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MBeanAttributeInfo;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SnapshotTest implements WithAssertions {
+
+    AjmxAdaptorImpl server;
+
+    @Before
+    public void setup() {
+        server = new AjmxAdaptorImpl();
+    }
+
+    @After
+    public void after() {
+        server = null;
+    }
+
+    @Test
+    public void snapshotAttributesTest() throws Exception {
+        SnapshotStats obj = new SnapshotStats();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        assertThat(inst.getMBeanInfo().getAttributes())
+                .extracting(MBeanAttributeInfo::getName)
+                .containsExactlyInAnyOrder("requests", "errors", "loadvalue", "loadhigh", "plain");
+        assertThat(inst.getMBeanInfo().getAttributes())
+                .allMatch(info -> info.isReadable() && !info.isWritable());
+        assertThat(inst.getMBeanAttributeInfo("loadvalue").getDescription()).isEqualTo("Current load");
+
+        assertThat(inst.getAttribute("requests")).isEqualTo(0L);
+        obj.increment();
+        assertThat(inst.getAttribute("requests")).isEqualTo(1L);
+
+        // No snapshot published yet
+        assertThat(inst.getAttribute("loadvalue")).isNull();
+        obj.load.set(new SnapshotStats.Load(0.9));
+        assertThat(inst.getAttribute("loadvalue")).isEqualTo(0.9);
+        assertThat(inst.getAttribute("loadhigh")).isEqualTo(true);
+
+        assertThat(inst.getAttributes().asList()).extracting(Attribute::getName)
+                .containsExactlyInAnyOrder("requests", "errors", "loadvalue", "loadhigh", "plain");
+    }
+
+    @Test
+    public void consistentSnapshotTest() throws InterruptedException {
+        SnapshotStats obj = new SnapshotStats();
+        AjmxAdaptorImpl.Instance inst = server.createInstance(obj, null, null);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            while (running.get()) {
+                obj.increment();
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                AttributeList values = inst.getAttributes(new String[]{"requests", "errors"});
+                assertThat(values.asList()).hasSize(2).extracting(Attribute::getValue)
+                        .containsOnly(values.asList().get(0).getValue());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+@MBean(snapshotLock = "lock")
+public class BadSnapshotLock {
+
+    Object lock = new Object();
+
+    @MBeanAttribute
+    long value = 0;
+}
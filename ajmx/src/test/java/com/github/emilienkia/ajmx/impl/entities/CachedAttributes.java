@@ -0,0 +1,62 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.emilienkia.ajmx.annotations.MBeanAttribute.AccessMode.READ_WRITE;
+
+@MBean
+public class CachedAttributes {
+
+    public final AtomicInteger loads = new AtomicInteger();
+
+    /** When set, loads wait for it before returning. */
+    public volatile CountDownLatch gate = null;
+
+    @MBeanAttribute(cacheTtl = 60_000)
+    public int getExpensive() throws InterruptedException {
+        CountDownLatch latch = gate;
+        if(latch!=null) {
+            latch.await();
+        }
+        return loads.incrementAndGet();
+    }
+
+    @MBeanAttribute(cacheTtl = 1)
+    public int getShortLived() {
+        return loads.incrementAndGet();
+    }
+
+    @MBeanAttribute
+    public int getUncached() {
+        return loads.incrementAndGet();
+    }
+
+    @MBeanAttribute(accessMode = READ_WRITE, cacheTtl = 60_000)
+    public int value = 0;
+
+    /** When set, counted down by loads of the setting once its value is read. */
+    public volatile CountDownLatch settingRead = null;
+
+    int setting = 0;
+
+    @MBeanAttribute(cacheTtl = 60_000)
+    public int getSetting() throws InterruptedException {
+        int value = setting;
+        CountDownLatch read = settingRead;
+        CountDownLatch latch = gate;
+        if(read!=null && latch!=null) {
+            read.countDown();
+            latch.await();
+        }
+        return value;
+    }
+
+    @MBeanAttribute
+    public void setSetting(int setting) {
+        this.setting = setting;
+    }
+}
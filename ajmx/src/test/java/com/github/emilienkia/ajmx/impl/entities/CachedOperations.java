@@ -0,0 +1,39 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanOperation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.emilienkia.ajmx.annotations.MBeanOperation.Impact.ACTION;
+import static com.github.emilienkia.ajmx.annotations.MBeanOperation.Impact.INFO;
+
+@MBean
+public class CachedOperations {
+
+    public final AtomicInteger invocations = new AtomicInteger();
+
+    @MBeanOperation(impact = INFO, cacheTtl = 60_000, cacheSize = 2)
+    public String dumpTopKeys(int count) {
+        return count + "#" + invocations.incrementAndGet();
+    }
+
+    @MBeanOperation(impact = INFO, cacheTtl = 60_000)
+    public int sum(int[][] values) {
+        invocations.incrementAndGet();
+        return Arrays.stream(values).flatMapToInt(Arrays::stream).sum();
+    }
+
+    @MBeanOperation(impact = INFO)
+    public int uncached() {
+        return invocations.incrementAndGet();
+    }
+
+    @MBean
+    public static class CachedAction {
+        @MBeanOperation(impact = ACTION, cacheTtl = 1000)
+        public void flush() {
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+import static com.github.emilienkia.ajmx.annotations.MBeanAttribute.AccessMode.READ_WRITE;
+
+@MBean
+public class FinalField {
+
+    @MBeanAttribute(accessMode = READ_WRITE)
+    public final int constant = 3;
+}
@@ -0,0 +1,21 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.metrics.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+@MBean
+public class HistogramBean {
+
+    @MBeanAttribute(description = "Request latency")
+    public final Histogram latency = new Histogram(0, TimeUnit.MILLISECONDS);
+
+    private final Histogram sizes = new Histogram();
+
+    @MBeanAttribute
+    public Histogram getSizes() {
+        return sizes;
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.metrics.Meter;
+
+@MBean
+public class MeterBean {
+
+    @MBeanAttribute
+    public final Meter requests = new Meter();
+}
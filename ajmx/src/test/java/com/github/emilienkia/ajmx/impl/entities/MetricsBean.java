@@ -0,0 +1,33 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.metrics.Counter;
+import com.github.emilienkia.ajmx.metrics.Gauge;
+import com.github.emilienkia.ajmx.metrics.MaxGauge;
+import com.github.emilienkia.ajmx.metrics.MinGauge;
+
+import static com.github.emilienkia.ajmx.annotations.MBeanAttribute.AccessMode.READ_WRITE;
+
+@MBean
+public class MetricsBean {
+
+    @MBeanAttribute(accessMode = READ_WRITE)
+    public final Counter requests = new Counter();
+
+    @MBeanAttribute
+    public final MaxGauge maxLatency = new MaxGauge();
+
+    @MBeanAttribute
+    public final MinGauge minLatency = new MinGauge();
+
+    @MBeanAttribute
+    public final Gauge load = new Gauge();
+
+    private final Counter errors = new Counter();
+
+    @MBeanAttribute
+    public Counter getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanOperation;
+
+@MBean
+public class OverloadedOperations {
+
+    @MBeanOperation
+    public String format(int value) {
+        return "int:" + value;
+    }
+
+    @MBeanOperation
+    public String format(long value) {
+        return "long:" + value;
+    }
+
+    @MBeanOperation
+    public String format(String value) {
+        return "string:" + value;
+    }
+
+    @MBeanOperation
+    public String format(String value, int times) {
+        return "string:" + value.repeat(times);
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@MBean
+public class RefreshedAttributes {
+
+    public final AtomicInteger loads = new AtomicInteger();
+
+    public volatile boolean failing = false;
+
+    @MBeanAttribute(refreshInterval = 10)
+    public int getRefreshed() {
+        if(failing) {
+            throw new IllegalStateException("Cannot compute value");
+        }
+        return loads.incrementAndGet();
+    }
+
+    public final AtomicInteger settingReads = new AtomicInteger();
+
+    int setting = 0;
+
+    @MBeanAttribute(refreshInterval = 60_000)
+    public int getSetting() {
+        settingReads.incrementAndGet();
+        return setting;
+    }
+
+    @MBeanAttribute
+    public void setSetting(int setting) {
+        this.setting = setting;
+    }
+}
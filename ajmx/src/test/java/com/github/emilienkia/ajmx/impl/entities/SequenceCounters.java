@@ -0,0 +1,33 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+/**
+ * Counters updated together by a single writer under a sequence number, requests and errors are always equal.
+ */
+@MBean(snapshotLock = "sequence")
+public class SequenceCounters {
+
+    volatile long sequence = 0;
+
+    @MBeanAttribute
+    volatile long requests = 0;
+
+    @MBeanAttribute
+    volatile long errors = 0;
+
+    public void increment() {
+        sequence++;
+        requests++;
+        errors++;
+        sequence++;
+    }
+
+    /**
+     * Start a write which never ends, like a stuck writer.
+     */
+    public void startWrite() {
+        sequence++;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.metrics.Histogram;
+import com.github.emilienkia.ajmx.metrics.QuantileSketch;
+
+@MBean
+public class SketchBean {
+
+    @MBeanAttribute
+    public final QuantileSketch latency = new QuantileSketch();
+
+    @MBeanAttribute
+    public final QuantileSketch precise = new QuantileSketch(0.001, 1.0, 16384);
+
+    @MBeanAttribute
+    public final Histogram durations = new Histogram();
+}
@@ -0,0 +1,53 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.annotations.MBeanSnapshot;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@MBean
+public class SnapshotStats {
+
+    /** Immutable state exposing its final fields. */
+    public static final class Counts {
+        final long requests;
+        final long errors;
+
+        public Counts(long requests, long errors) {
+            this.requests = requests;
+            this.errors = errors;
+        }
+    }
+
+    /** Immutable state exposing its annotated members. */
+    public static final class Load {
+        @MBeanAttribute(description = "Current load")
+        final double value;
+
+        final String ignored = "ignored";
+
+        public Load(double value) {
+            this.value = value;
+        }
+
+        @MBeanAttribute
+        public boolean getHigh() {
+            return value > 0.8;
+        }
+    }
+
+    @MBeanSnapshot
+    public volatile Counts counts = new Counts(0, 0);
+
+    @MBeanSnapshot(prefix = "load")
+    public final AtomicReference<Load> load = new AtomicReference<>();
+
+    @MBeanAttribute
+    public int plain = 7;
+
+    public void increment() {
+        Counts current = counts;
+        counts = new Counts(current.requests + 1, current.errors + 1);
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Counters updated together under a stamped lock, requests and errors are always equal.
+ */
+@MBean(snapshotLock = "lock")
+public class StampedCounters {
+
+    private final StampedLock lock = new StampedLock();
+
+    @MBeanAttribute
+    long requests = 0;
+
+    @MBeanAttribute
+    long errors = 0;
+
+    public void increment() {
+        long stamp = lock.writeLock();
+        try {
+            requests++;
+            errors++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
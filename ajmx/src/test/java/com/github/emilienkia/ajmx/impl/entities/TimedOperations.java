@@ -0,0 +1,41 @@
+package com.github.emilienkia.ajmx.impl.entities;
+
+import com.github.emilienkia.ajmx.annotations.MBean;
+import com.github.emilienkia.ajmx.annotations.MBeanAttribute;
+import com.github.emilienkia.ajmx.annotations.MBeanOperation;
+
+import java.util.concurrent.locks.LockSupport;
+
+@MBean
+public class TimedOperations {
+
+    @MBeanOperation(timed = true)
+    public void rebalance(long nanos) {
+        LockSupport.parkNanos(nanos);
+    }
+
+    @MBeanOperation(timed = true)
+    public void rebalance(String partition) {
+        if(partition.isEmpty()) {
+            throw new IllegalStateException("No partition");
+        }
+    }
+
+    @MBeanOperation
+    public int untimed() {
+        return 1;
+    }
+
+    @MBean
+    public static class Conflicting {
+
+        @MBeanOperation(timed = true)
+        public void flush() {
+        }
+
+        @MBeanAttribute
+        public long getFlushInvocations() {
+            return 0;
+        }
+    }
+}